@@ -0,0 +1,77 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.sequential.List;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.AllPairsRoutes;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.NetworkSnapshot;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the all pairs mode on {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} ports networks: how long it takes
+ * to calculate the {@link AllPairsRoutes} with all the cores, and the best routes based on the distance walked from
+ * them compared with {@link GraphUtils#bestKmsRoute(NetworkSnapshot, Port, Port)}. Queries cycle over
+ * {@link #QUERIES} seeded pairs of ports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AllPairsBenchmark {
+
+    public static final int QUERIES = 64;
+
+    @Param({"1000", "2000"})
+    public int ports;
+
+    private NetworkSnapshot network;
+    private AllPairsRoutes allPairs;
+    private Port[] sources;
+    private Port[] destinations;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = new NetworkSnapshot(new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 4)
+                .oneWayRatio(0)
+                .portsNetwork());
+        allPairs = new AllPairsRoutes(network, 0);
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        sources = new Port[QUERIES];
+        destinations = new Port[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = network.port(random.nextInt(ports));
+            destinations[i] = network.port(random.nextInt(ports));
+        }
+    }
+
+    @Benchmark
+    public List<Route> allPairs() {
+        int i = counter++ % QUERIES;
+        return allPairs.bestKmsRoute(sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public List<Route> heap() {
+        int i = counter++ % QUERIES;
+        return GraphUtils.bestKmsRoute(network, sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public AllPairsRoutes build() {
+        return new AllPairsRoutes(network, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package uoc.ds.pr.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.*;
+
+/**
+ * Benchmarks the registration operations: addShip, addRoute, addClient and addVoyage.
+ * <p>
+ * Every measured iteration runs {@link #BATCH} operations over a freshly generated shipping line, so the reported
+ * score is the time needed to register a whole batch. Ports use the {@link Topology#FORWARD} topology, so the new
+ * routes can connect ports that are not connected yet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = CatalogBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = CatalogBenchmark.BATCH)
+@Fork(1)
+public class CatalogBenchmark {
+
+    public static final int BATCH = 5000;
+    private static final int ROUTES_PER_PORT = 3;
+
+    @Param({"5", "25", "1000"})
+    public int ships;
+
+    @Param({"100", "1000"})
+    public int ports;
+
+    @Param({"1000", "10000"})
+    public int clients;
+
+    private DatasetGenerator generator;
+    private ShippingLinePR2 shippingLine;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws DSException {
+        generator = new DatasetGenerator()
+                .topology(Topology.FORWARD)
+                .ships(ships)
+                .ports(ports, ROUTES_PER_PORT)
+                .clients(clients)
+                .voyages(clients / 10)
+                .reservations(0, 0, 0)
+                .orders(0);
+        shippingLine = generator.populate(new ShippingLinePR2Impl());
+        counter = 0;
+    }
+
+    @Benchmark
+    public void addShip() {
+        // The existing ships are updated, so the fleet keeps the size of the parameter
+        int i = counter++ % generator.numShips();
+        shippingLine.addShip(shipId(i), "Updated ship " + i, 500, 100, 100, 100, 10);
+    }
+
+    @Benchmark
+    public void addRoute() throws DSException {
+        // Connects pairs of ports that are not connected yet, skipping the ROUTES_PER_PORT following ports
+        int n = counter++;
+        int src = n % ports;
+        int dst = (src + ROUTES_PER_PORT + 1 + n / ports) % ports;
+        shippingLine.addRoute("newRouteId" + n, portId(src), portId(dst), 100);
+    }
+
+    @Benchmark
+    public void addClient() {
+        int n = counter++;
+        shippingLine.addClient("newClientId" + n, "Name " + n, "Surname " + n);
+    }
+
+    @Benchmark
+    public void addVoyage() throws DSException {
+        int n = counter++;
+        shippingLine.addVoyage("newVoyageId" + n, date(n), date(n + 12), shipId(n % generator.numShips()),
+                routeId(n % generator.numRoutes()));
+    }
+}
@@ -0,0 +1,69 @@
+package uoc.ds.pr.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Category;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.categoryId;
+
+/**
+ * Compares getCategory, backed by the hashed {@link uoc.ds.pr.util.DSArray}, with the comparator search of
+ * {@link LegacyDSLinkedList}, for 50, 1k and 10k categories, and measures addProduct, which looks its category up.
+ * Lookups cycle over {@link #QUERIES} seeded category IDs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryBenchmark {
+
+    public static final int QUERIES = 1024;
+
+    @Param({"50", "1000", "10000"})
+    public int categories;
+
+    private ShippingLinePR2Impl shippingLine;
+    private LegacyDSLinkedList<Category> legacyCategories;
+    private String[] ids;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shippingLine = new ShippingLinePR2Impl();
+        legacyCategories = new LegacyDSLinkedList<>(Comparator.comparing(Category::getId));
+        for (int i = 0; i < categories; i++) {
+            shippingLine.addCategory(categoryId(i), "Category " + i);
+            legacyCategories.insertEnd(shippingLine.getCategory(categoryId(i)));
+        }
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        ids = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            ids[i] = categoryId(random.nextInt(categories));
+        }
+    }
+
+    @Benchmark
+    public Category getCategory() {
+        return shippingLine.getCategory(ids[counter++ % QUERIES]);
+    }
+
+    @Benchmark
+    public Category legacyGetCategory() {
+        return legacyCategories.get(new Category(ids[counter++ % QUERIES]));
+    }
+
+    @Benchmark
+    public void addProduct() throws DSException {
+        // The same QUERIES products are moved between categories, so the catalog does not grow
+        int n = counter++ % QUERIES;
+        shippingLine.addProduct("productId" + n, "Product " + n, "Description " + n, ids[n]);
+    }
+}
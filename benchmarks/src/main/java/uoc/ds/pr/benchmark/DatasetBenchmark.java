@@ -0,0 +1,42 @@
+package uoc.ds.pr.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time needed to populate a production sized shipping line with the {@link DatasetGenerator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DatasetBenchmark {
+
+    @Param({"RANDOM_GEOMETRIC", "SCALE_FREE"})
+    public DatasetGenerator.Topology topology;
+
+    @Param({"10000", "50000"})
+    public int ports;
+
+    @Param({"100000", "300000"})
+    public int clients;
+
+    @Param({"100000"})
+    public int voyages;
+
+    @Benchmark
+    public ShippingLinePR2 populate() throws DSException {
+        return new DatasetGenerator()
+                .topology(topology)
+                .ports(ports, 3)
+                .clients(clients)
+                .voyages(voyages)
+                .populate(new ShippingLinePR2Impl());
+    }
+}
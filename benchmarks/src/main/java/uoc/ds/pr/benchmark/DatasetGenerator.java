@@ -0,0 +1,586 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import uoc.ds.pr.ShippingLine;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.Utils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded, deterministic generator of production sized shipping lines. All the elements are streamed through the
+ * public {@link ShippingLinePR2} API, in this order: ships, ports, routes, clients, categories, products (linked to
+ * the ship menus), voyages, reservations (some of them loaded) and orders.
+ * <p>
+ * Ports are placed randomly over the Mediterranean and connected following one of the {@link Topology topologies}.
+ * The distance of every route is the great-circle distance between its ports increased by up to 30%.
+ * <p>
+ * The same seed and parameters always generate the same shipping line, and the generator keeps the information
+ * needed to build valid queries over it (e.g. {@link #reservedClient(int, int)}).
+ */
+public class DatasetGenerator {
+
+    public static final long DEFAULT_SEED = 20231L;
+
+    public enum Topology {
+        /** Every port {@code i} has routes to the ports {@code i + 1 .. i + degree}. The network is acyclic */
+        FORWARD,
+        /** Every port is connected with its {@code degree} nearest ports */
+        RANDOM_GEOMETRIC,
+        /** Preferential attachment: every new port is connected with {@code degree} ports chosen by their degree */
+        SCALE_FREE
+    }
+
+    private static final double MIN_LATITUDE = 30.0;
+    private static final double MAX_LATITUDE = 46.0;
+    private static final double MIN_LONGITUDE = -6.0;
+    private static final double MAX_LONGITUDE = 36.0;
+    private static final double SPEED_KMS_PER_HOUR = 35.0;
+
+    private static final long BASE_DATE = 1719792000000L; // 01-07-2024 00:00:00 UTC
+    private static final long HOUR = 3600000L;
+
+    private long seed = DEFAULT_SEED;
+    private Topology topology = Topology.RANDOM_GEOMETRIC;
+    private int numShips = ShippingLine.MAX_NUM_SHIPS;
+    private int numPorts = 10000;
+    private int degree = 3;
+    private double oneWayRatio = 0.2;
+    private int numClients = 100000;
+    private int numCategories = 50;
+    private int numProducts = 2000;
+    private int menuSize = 100;
+    private int numVoyages = 100000;
+    private int reservationsPerVoyage = 3;
+    private double vehicleRatio = 0.1;
+    private double loadedRatio = 0.5;
+    private int ordersPerVoyage = 1;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private int[] routeSources;
+    private int[] routeDestinations;
+    private double[] routeKms;
+    private int numRoutes;
+    private int[][] menus;
+    private int[] voyageShips;
+    private int[] firstReservedClients;
+
+    // Grid of cells of ports, grid[gridOffsets[c] .. gridOffsets[c + 1]] are the ports of the cell c
+    private int gridSize;
+    private int[] gridOffsets;
+    private int[] grid;
+
+    public DatasetGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public DatasetGenerator topology(Topology topology) {
+        this.topology = topology;
+        return this;
+    }
+
+    public DatasetGenerator ships(int numShips) {
+        this.numShips = numShips;
+        return this;
+    }
+
+    public DatasetGenerator ports(int numPorts, int degree) {
+        this.numPorts = numPorts;
+        this.degree = degree;
+        return this;
+    }
+
+    /**
+     * @param oneWayRatio ratio of connections between ports that only have a route in one direction
+     */
+    public DatasetGenerator oneWayRatio(double oneWayRatio) {
+        this.oneWayRatio = oneWayRatio;
+        return this;
+    }
+
+    public DatasetGenerator clients(int numClients) {
+        this.numClients = numClients;
+        return this;
+    }
+
+    public DatasetGenerator products(int numCategories, int numProducts, int menuSize) {
+        this.numCategories = numCategories;
+        this.numProducts = numProducts;
+        this.menuSize = menuSize;
+        return this;
+    }
+
+    public DatasetGenerator voyages(int numVoyages) {
+        this.numVoyages = numVoyages;
+        return this;
+    }
+
+    /**
+     * @param reservationsPerVoyage number of reservations of every voyage
+     * @param vehicleRatio          ratio of reservations with a vehicle
+     * @param loadedRatio           ratio of reservations that are loaded
+     */
+    public DatasetGenerator reservations(int reservationsPerVoyage, double vehicleRatio, double loadedRatio) {
+        this.reservationsPerVoyage = reservationsPerVoyage;
+        this.vehicleRatio = vehicleRatio;
+        this.loadedRatio = loadedRatio;
+        return this;
+    }
+
+    public DatasetGenerator orders(int ordersPerVoyage) {
+        this.ordersPerVoyage = ordersPerVoyage;
+        return this;
+    }
+
+    /**
+     * Populates the shipping line with the configured elements.
+     *
+     * @param shippingLine empty shipping line to be populated
+     * @return the same shipping line
+     * @throws DSException when the shipping line rejects any of the generated elements
+     */
+    public ShippingLinePR2 populate(ShippingLinePR2 shippingLine) throws DSException {
+        final Random random = new Random(seed + 1);
+
+        reservationsPerVoyage = Math.min(reservationsPerVoyage, numClients);
+        menuSize = Math.min(menuSize, numProducts);
+
+        generateNetwork();
+
+        addShips(shippingLine, random);
+        addPorts(shippingLine);
+        addRoutes(shippingLine);
+        addClients(shippingLine);
+        addProducts(shippingLine, random);
+        addVoyages(shippingLine, random);
+        addReservations(shippingLine, random);
+        addOrders(shippingLine, random);
+
+        return shippingLine;
+    }
+
+    private void addShips(ShippingLinePR2 shippingLine, Random random) {
+        int capacity = Math.max(500, reservationsPerVoyage * 2);
+        for (int i = 0; i < numShips; i++) {
+            shippingLine.addShip(shipId(i), "Ship " + i, capacity + random.nextInt(capacity), capacity, capacity,
+                    Math.max(50, reservationsPerVoyage + 1), 5 + random.nextInt(30));
+        }
+    }
+
+    private void addPorts(ShippingLinePR2 shippingLine) {
+        for (int i = 0; i < numPorts; i++) {
+            shippingLine.addPort(portId(i), "Port " + i, "http://image" + i, "description" + i,
+                    latitudes[i], longitudes[i]);
+        }
+    }
+
+    private void addRoutes(ShippingLinePR2 shippingLine) throws DSException {
+        for (int i = 0; i < numRoutes; i++) {
+            shippingLine.addRoute(routeId(i), portId(routeSources[i]), portId(routeDestinations[i]), routeKms[i]);
+        }
+    }
+
+    /**
+     * Generates the ports network: the coordinates of the ports and the routes between them. The network uses its
+     * own random generator, so {@link #portsNetwork()} builds the same network that is populated.
+     */
+    private void generateNetwork() {
+        final Random random = new Random(seed);
+
+        latitudes = new double[numPorts];
+        longitudes = new double[numPorts];
+        for (int i = 0; i < numPorts; i++) {
+            latitudes[i] = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+            longitudes[i] = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+        }
+
+        routeSources = new int[numPorts * degree * 2];
+        routeDestinations = new int[routeSources.length];
+        routeKms = new double[routeSources.length];
+        numRoutes = 0;
+        grid = null;
+        Set<Long> connected = new HashSet<>();
+
+        switch (topology) {
+            case FORWARD:
+                for (int i = 0; i < numPorts; i++) {
+                    for (int k = 1; k <= degree && i + k < numPorts; k++) {
+                        addRoute(random, connected, i, i + k);
+                    }
+                }
+                break;
+            case RANDOM_GEOMETRIC:
+                int[] neighbours = new int[degree];
+                for (int i = 0; i < numPorts; i++) {
+                    int found = nearestPorts(i, neighbours);
+                    for (int k = 0; k < found; k++) {
+                        connect(random, connected, i, neighbours[k]);
+                    }
+                }
+                break;
+            case SCALE_FREE:
+                // Every connection adds both ports to the list, so ports are chosen proportionally to their degree
+                int[] endpoints = new int[numPorts * degree * 2 + 2];
+                int numEndpoints = 0;
+                for (int i = 1; i <= degree && i < numPorts; i++) {
+                    connect(random, connected, i - 1, i);
+                    endpoints[numEndpoints++] = i - 1;
+                    endpoints[numEndpoints++] = i;
+                }
+                for (int i = degree + 1; i < numPorts; i++) {
+                    int limit = numEndpoints;
+                    for (int k = 0; k < degree; k++) {
+                        int target = endpoints[random.nextInt(limit)];
+                        if (connect(random, connected, i, target)) {
+                            endpoints[numEndpoints++] = i;
+                            endpoints[numEndpoints++] = target;
+                        }
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Connects two ports with a route in a random direction, or in both directions.
+     *
+     * @return true if the ports were not connected yet
+     */
+    private boolean connect(Random random, Set<Long> connected, int a, int b) {
+        if (a == b || connected.contains(pair(a, b)) || connected.contains(pair(b, a))) {
+            return false;
+        }
+        if (random.nextDouble() >= oneWayRatio) {
+            addRoute(random, connected, a, b);
+            addRoute(random, connected, b, a);
+        } else if (random.nextBoolean()) {
+            addRoute(random, connected, a, b);
+        } else {
+            addRoute(random, connected, b, a);
+        }
+        return true;
+    }
+
+    private void addRoute(Random random, Set<Long> connected, int src, int dst) {
+        if (numRoutes == routeSources.length) {
+            routeSources = Arrays.copyOf(routeSources, numRoutes * 2);
+            routeDestinations = Arrays.copyOf(routeDestinations, numRoutes * 2);
+            routeKms = Arrays.copyOf(routeKms, numRoutes * 2);
+        }
+        connected.add(pair(src, dst));
+        routeSources[numRoutes] = src;
+        routeDestinations[numRoutes] = dst;
+        // Rounded up, so no route is shorter than the great-circle distance between its ports
+        routeKms[numRoutes++] = Math.max(1, Math.ceil(greatCircleKms(src, dst) * (1 + random.nextDouble() * 0.3)));
+    }
+
+    /**
+     * Builds a standalone ports network, equal to the one populated into the shipping lines, without populating any
+     * other element. Useful to benchmark graph algorithms directly.
+     *
+     * @return directed graph whose vertexes are the ports and whose edges are labelled with the routes
+     */
+    public DirectedGraph<Port, Route> portsNetwork() {
+        generateNetwork();
+
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        Vertex<Port>[] vertices = newVertices(numPorts);
+        for (int i = 0; i < numPorts; i++) {
+            vertices[i] = graph.newVertex(new Port(portId(i), "http://image" + i, "description" + i, "Port " + i,
+                    latitudes[i], longitudes[i]));
+        }
+        for (int i = 0; i < numRoutes; i++) {
+            Port src = vertices[routeSources[i]].getValue();
+            Port dst = vertices[routeDestinations[i]].getValue();
+            Route route = new Route(routeId(i), src, dst, routeKms[i]);
+            src.addRoute(route);
+            graph.newEdge(vertices[routeSources[i]], vertices[routeDestinations[i]]).setLabel(route);
+        }
+        return graph;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Vertex<Port>[] newVertices(int length) {
+        return new Vertex[length];
+    }
+
+    /**
+     * Finds the nearest ports to a port, looking up the ports cell by cell around it in a grid.
+     *
+     * @param port       port whose neighbours are searched
+     * @param neighbours array to be filled with the nearest ports, sorted by distance
+     * @return number of neighbours found
+     */
+    private int nearestPorts(int port, int[] neighbours) {
+        if (grid == null) {
+            buildGrid();
+        }
+        double[] distances = new double[neighbours.length];
+        int found = 0;
+
+        int cx = cell(longitudes[port], MIN_LONGITUDE, MAX_LONGITUDE);
+        int cy = cell(latitudes[port], MIN_LATITUDE, MAX_LATITUDE);
+        double cellSize = Math.min(MAX_LONGITUDE - MIN_LONGITUDE, MAX_LATITUDE - MIN_LATITUDE) / gridSize;
+
+        for (int ring = 0; ring < gridSize; ring++) {
+            if (found == neighbours.length && distances[found - 1] < (ring - 1) * cellSize) {
+                break;
+            }
+            for (int x = cx - ring; x <= cx + ring; x++) {
+                for (int y = cy - ring; y <= cy + ring; y++) {
+                    boolean border = Math.abs(x - cx) == ring || Math.abs(y - cy) == ring;
+                    if (!border || x < 0 || y < 0 || x >= gridSize || y >= gridSize) {
+                        continue;
+                    }
+                    int c = x * gridSize + y;
+                    for (int p = gridOffsets[c]; p < gridOffsets[c + 1]; p++) {
+                        int candidate = grid[p];
+                        if (candidate == port) {
+                            continue;
+                        }
+                        double d = Math.hypot(longitudes[candidate] - longitudes[port],
+                                latitudes[candidate] - latitudes[port]);
+                        if (found < neighbours.length || d < distances[found - 1]) {
+                            // Insertion into the sorted array of neighbours
+                            int i = Math.min(found, neighbours.length - 1);
+                            while (i > 0 && distances[i - 1] > d) {
+                                distances[i] = distances[i - 1];
+                                neighbours[i] = neighbours[i - 1];
+                                i--;
+                            }
+                            distances[i] = d;
+                            neighbours[i] = candidate;
+                            found = Math.min(found + 1, neighbours.length);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private void buildGrid() {
+        gridSize = Math.max(1, (int) Math.sqrt(numPorts / 2.0));
+        gridOffsets = new int[gridSize * gridSize + 1];
+        grid = new int[numPorts];
+
+        int[] cells = new int[numPorts];
+        for (int i = 0; i < numPorts; i++) {
+            cells[i] = cell(longitudes[i], MIN_LONGITUDE, MAX_LONGITUDE) * gridSize
+                    + cell(latitudes[i], MIN_LATITUDE, MAX_LATITUDE);
+            gridOffsets[cells[i] + 1]++;
+        }
+        for (int c = 0; c < gridSize * gridSize; c++) {
+            gridOffsets[c + 1] += gridOffsets[c];
+        }
+        int[] next = Arrays.copyOf(gridOffsets, gridOffsets.length - 1);
+        for (int i = 0; i < numPorts; i++) {
+            grid[next[cells[i]]++] = i;
+        }
+    }
+
+    private int cell(double value, double min, double max) {
+        return Math.min(gridSize - 1, (int) ((value - min) / (max - min) * gridSize));
+    }
+
+    private void addClients(ShippingLinePR2 shippingLine) {
+        for (int i = 0; i < numClients; i++) {
+            shippingLine.addClient(clientId(i), "Name " + i, "Surname " + i);
+        }
+    }
+
+    private void addProducts(ShippingLinePR2 shippingLine, Random random) throws DSException {
+        for (int i = 0; i < numCategories; i++) {
+            shippingLine.addCategory(categoryId(i), "Category " + i);
+        }
+        for (int i = 0; i < numProducts; i++) {
+            shippingLine.addProduct(productId(i), "Product " + i, "description" + i,
+                    categoryId(random.nextInt(numCategories)));
+        }
+
+        // Every menu is a random subset of the products, chosen with a partial shuffle
+        int[] products = new int[numProducts];
+        Arrays.setAll(products, i -> i);
+        menus = new int[numShips][];
+        for (int s = 0; s < numShips; s++) {
+            for (int i = 0; i < menuSize; i++) {
+                int j = i + random.nextInt(numProducts - i);
+                int tmp = products[i];
+                products[i] = products[j];
+                products[j] = tmp;
+                shippingLine.linkProduct(productId(products[i]), shipId(s));
+            }
+            menus[s] = Arrays.copyOf(products, menuSize);
+        }
+    }
+
+    private void addVoyages(ShippingLinePR2 shippingLine, Random random) throws DSException {
+        voyageShips = new int[numVoyages];
+        for (int i = 0; i < numVoyages; i++) {
+            int route = random.nextInt(numRoutes);
+            long departure = departure(random);
+            long duration = (long) (routeKms[route] / SPEED_KMS_PER_HOUR * HOUR);
+            voyageShips[i] = random.nextInt(numShips);
+            shippingLine.addVoyage(voyageId(i), new Date(departure), new Date(departure + duration),
+                    shipId(voyageShips[i]), routeId(route));
+        }
+    }
+
+    private void addReservations(ShippingLinePR2 shippingLine, Random random) throws DSException {
+        ShippingLine.AccommodationType[] types = ShippingLine.AccommodationType.values();
+        firstReservedClients = new int[numVoyages];
+        for (int v = 0; v < numVoyages; v++) {
+            firstReservedClients[v] = random.nextInt(numClients);
+            for (int j = 0; j < reservationsPerVoyage; j++) {
+                String clientId = clientId(reservedClient(v, j));
+                String vehicle = random.nextDouble() < vehicleRatio ? vehicleId(v, j) : null;
+                shippingLine.reserve(new String[]{clientId}, voyageId(v), types[random.nextInt(types.length)],
+                        vehicle, 50 + random.nextInt(200));
+                if (random.nextDouble() < loadedRatio) {
+                    shippingLine.load(clientId, voyageId(v), new Date(BASE_DATE));
+                }
+            }
+        }
+    }
+
+    private void addOrders(ShippingLinePR2 shippingLine, Random random) throws DSException {
+        if (reservationsPerVoyage == 0 || menuSize == 0) {
+            return;
+        }
+        for (int v = 0; v < numVoyages; v++) {
+            int[] menu = menus[voyageShips[v]];
+            for (int o = 0; o < ordersPerVoyage; o++) {
+                String[] products = new String[1 + random.nextInt(3)];
+                for (int p = 0; p < products.length; p++) {
+                    products[p] = productId(menu[random.nextInt(menu.length)]);
+                }
+                shippingLine.makeOrder(clientId(reservedClient(v, random.nextInt(reservationsPerVoyage))),
+                        voyageId(v), products, 5 + random.nextInt(50));
+            }
+        }
+    }
+
+    private long departure(Random random) {
+        return BASE_DATE + random.nextInt(365 * 24) * HOUR;
+    }
+
+    private double greatCircleKms(int a, int b) {
+        return Utils.greatCircleKms(latitudes[a], longitudes[a], latitudes[b], longitudes[b]);
+    }
+
+    private static long pair(int src, int dst) {
+        return ((long) src << 32) | dst;
+    }
+
+    /**
+     * @param voyage voyage index
+     * @param j      reservation index, lower than the number of reservations per voyage
+     * @return index of the client of the j-th reservation of the voyage
+     */
+    public int reservedClient(int voyage, int j) {
+        return (firstReservedClients[voyage] + j) % numClients;
+    }
+
+    /**
+     * @param ship ship index
+     * @return indexes of the products in the menu of the ship
+     */
+    public int[] menu(int ship) {
+        return menus[ship];
+    }
+
+    public int voyageShip(int voyage) {
+        return voyageShips[voyage];
+    }
+
+    public double latitude(int port) {
+        return latitudes[port];
+    }
+
+    public double longitude(int port) {
+        return longitudes[port];
+    }
+
+    public int routeSource(int i) {
+        return routeSources[i];
+    }
+
+    public int routeDestination(int i) {
+        return routeDestinations[i];
+    }
+
+    public int numShips() {
+        return numShips;
+    }
+
+    public int numPorts() {
+        return numPorts;
+    }
+
+    public int numRoutes() {
+        return numRoutes;
+    }
+
+    public int numClients() {
+        return numClients;
+    }
+
+    public int numProducts() {
+        return numProducts;
+    }
+
+    public int numVoyages() {
+        return numVoyages;
+    }
+
+    public int reservationsPerVoyage() {
+        return reservationsPerVoyage;
+    }
+
+    public static String shipId(int i) {
+        return "shipId" + i;
+    }
+
+    public static String portId(int i) {
+        return "P" + i;
+    }
+
+    public static String routeId(int i) {
+        return "routeId" + i;
+    }
+
+    public static String clientId(int i) {
+        return "clientId" + i;
+    }
+
+    public static String voyageId(int i) {
+        return "voyageId" + i;
+    }
+
+    public static String vehicleId(int voyage, int j) {
+        return "vehicle" + voyage + "_" + j;
+    }
+
+    public static String categoryId(int i) {
+        return "C" + i;
+    }
+
+    public static String productId(int i) {
+        return "productId" + i;
+    }
+
+    public static Date date(int hours) {
+        return new Date(BASE_DATE + hours * HOUR);
+    }
+}
@@ -0,0 +1,87 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.HubDistances;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.PortRegistry;
+import uoc.ds.pr.util.ShortestPathTree;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repairing the trees of {@link #HUBS} hub ports with {@link HubDistances} after the kms of a route change,
+ * with building their {@link ShortestPathTree} again over a new snapshot of the network. Every operation changes a
+ * seeded random route of a {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} ports network to seeded random kms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HubDistancesBenchmark {
+
+    public static final int HUBS = 8;
+
+    @Param({"10000"})
+    public int ports;
+
+    private DirectedGraph<Port, Route> graph;
+    private NetworkSnapshot network;
+    private Port[] hubs;
+    private HubDistances hubDistances;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 3)
+                .portsNetwork();
+        network = new NetworkSnapshot(graph);
+
+        PortRegistry registry = new PortRegistry();
+        Iterator<Vertex<Port>> vertexes = graph.vertexs();
+        while (vertexes.hasNext()) {
+            Vertex<Port> vertex = vertexes.next();
+            registry.register(vertex.getValue(), vertex);
+        }
+        hubDistances = new HubDistances(registry, graph);
+
+        random = new Random(DatasetGenerator.DEFAULT_SEED);
+        hubs = new Port[HUBS];
+        for (int i = 0; i < HUBS; i++) {
+            hubs[i] = network.port(random.nextInt(ports));
+            hubDistances.addHub(hubs[i]);
+        }
+    }
+
+    private Route changeRoute() {
+        Route route = network.route(random.nextInt(network.numRoutes()));
+        route.update(route.getSrcPort(), route.getDstPort(), 1 + random.nextInt(300));
+        return route;
+    }
+
+    @Benchmark
+    public long repair() {
+        Route route = changeRoute();
+        hubDistances.updateRoute(route, route.getDstPort());
+        return hubDistances.getSettledPorts();
+    }
+
+    @Benchmark
+    public void rebuild(Blackhole blackhole) {
+        changeRoute();
+        NetworkSnapshot snapshot = new NetworkSnapshot(graph);
+        for (Port hub : hubs) {
+            blackhole.consume(new ShortestPathTree(snapshot, hub));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.exceptions.NoRouteException;
+import uoc.ds.pr.model.Voyage;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.portId;
+
+/**
+ * Benchmarks getEarliestArrivalItinerary on a year of voyages between {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC}
+ * ports. Queries cycle over {@link #QUERIES} seeded pairs of ports with an itinerary, leaving during the first month.
+ * The voyage timetable is built in the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItineraryBenchmark {
+
+    public static final int QUERIES = 64;
+
+    private static final long BASE_DATE = 1719792000000L;
+    private static final long HOUR = 3600000L;
+
+    @Param({"1000"})
+    public int ports;
+
+    @Param({"100000", "300000"})
+    public int voyages;
+
+    private ShippingLinePR2 shippingLine;
+    private String[] sources;
+    private String[] destinations;
+    private Date[] departures;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DSException {
+        shippingLine = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 4)
+                .clients(10)
+                .voyages(voyages)
+                .reservations(0, 0, 0)
+                .orders(0)
+                .populate(new ShippingLinePR2Impl());
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        sources = new String[QUERIES];
+        destinations = new String[QUERIES];
+        departures = new Date[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            int src = random.nextInt(ports);
+            int dst = random.nextInt(ports);
+            Date departure = new Date(BASE_DATE + random.nextInt(30 * 24) * HOUR);
+            try {
+                if (src != dst) {
+                    shippingLine.getEarliestArrivalItinerary(portId(src), portId(dst), departure);
+                    sources[i] = portId(src);
+                    destinations[i] = portId(dst);
+                    departures[i++] = departure;
+                }
+            } catch (NoRouteException e) {
+                // Only ports with an itinerary are queried
+            }
+        }
+    }
+
+    @Benchmark
+    public Iterator<Voyage> getEarliestArrivalItinerary() throws DSException {
+        int i = counter++ % QUERIES;
+        return shippingLine.getEarliestArrivalItinerary(sources[i], destinations[i], departures[i]);
+    }
+}
@@ -0,0 +1,102 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedEdge;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.adt.sequential.List;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.KShortestRoutes;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.ParetoRoutes;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap based {@link GraphUtils#bestKmsRoute} with the previous implementation based on
+ * {@link edu.uoc.ds.algorithms.MinimumPaths} on {@link DatasetGenerator.Topology#SCALE_FREE} ports networks. The query
+ * goes from the first to the last port. {@code kBestRoutes} measures the {@value #K} best alternatives of
+ * {@link KShortestRoutes} for the same query, and {@code paretoRoutes} the
+ * {@link ParetoRoutes} between kms and number of ports.
+ * <p>
+ * The previous implementation needs numeric labels, so it runs over a copy of the network labelled with
+ * {@link LegacyGraphUtils.KmsRoute}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KmsRouteBenchmark {
+
+    public static final int K = 10;
+
+    @Param({"1000", "10000"})
+    public int ports;
+
+    private DirectedGraph<Port, Route> graph;
+    private DirectedGraph<Port, LegacyGraphUtils.KmsRoute> legacyGraph;
+    private NetworkSnapshot network;
+    private Port first;
+    private Port last;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.SCALE_FREE)
+                .ports(ports, 3)
+                .portsNetwork();
+
+        legacyGraph = new DirectedGraphImpl<>();
+        Map<Vertex<Port>, Vertex<Port>> copies = new IdentityHashMap<>();
+        var vertexes = graph.vertexs();
+        while (vertexes.hasNext()) {
+            Vertex<Port> vertex = vertexes.next();
+            copies.put(vertex, legacyGraph.newVertex(vertex.getValue()));
+
+            if (vertex.getValue().getId().equals(DatasetGenerator.portId(0))) {
+                first = vertex.getValue();
+            } else if (vertex.getValue().getId().equals(DatasetGenerator.portId(ports - 1))) {
+                last = vertex.getValue();
+            }
+        }
+
+        var edges = graph.edges();
+        while (edges.hasNext()) {
+            var edge = (DirectedEdge<Route, Port>) edges.next();
+            legacyGraph.newEdge(copies.get(edge.getVertexSrc()), copies.get(edge.getVertexDst()))
+                    .setLabel(new LegacyGraphUtils.KmsRoute(edge.getLabel()));
+        }
+
+        network = new NetworkSnapshot(graph);
+    }
+
+    @Benchmark
+    public List<Route> heap() {
+        return GraphUtils.bestKmsRoute(network, first, last);
+    }
+
+    @Benchmark
+    public List<List<Route>> kBestRoutes() {
+        return KShortestRoutes.bestKmsRoutes(network, first, last, K);
+    }
+
+    @Benchmark
+    public List<List<Route>> paretoRoutes() {
+        return ParetoRoutes.bestRoutes(network, first, last);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<LegacyGraphUtils.KmsRoute> legacy() {
+        return LegacyGraphUtils.bestKmsRoute(legacyGraph, first, last);
+    }
+}
@@ -0,0 +1,157 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.sequential.List;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.ContractionHierarchy;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.NetworkSnapshot;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the point to point searches {@link GraphUtils#bestKmsRouteAStar} and
+ * {@link GraphUtils#bestKmsRouteBidirectional} with the unidirectional {@link GraphUtils#bestKmsRoute} on
+ * {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} ports networks, whose ports have coordinates in the
+ * Mediterranean, and with the queries of a {@link ContractionHierarchy} built in the setup, whose preprocessing is
+ * measured on its own by {@link #buildContractionHierarchy}. Queries cycle over {@link #QUERIES} seeded pairs of
+ * connected ports.
+ * <p>
+ * Besides the time, {@code settledPorts} reports the ports explored by all the {@code queries} run. They are counted
+ * in the setup, running every query over a {@link CountingSnapshot}, which counts the ports whose routes are read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KmsSearchBenchmark {
+
+    public static final int QUERIES = 64;
+
+    @Param({"1000", "10000"})
+    public int ports;
+
+    private NetworkSnapshot network;
+    private ContractionHierarchy hierarchy;
+    private Port[] sources;
+    private Port[] destinations;
+    private long[] dijkstraSettled;
+    private long[] aStarSettled;
+    private long[] bidirectionalSettled;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DirectedGraph<Port, Route> graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 3)
+                .portsNetwork();
+        network = new NetworkSnapshot(graph);
+        hierarchy = new ContractionHierarchy(network);
+        CountingSnapshot countingNetwork = new CountingSnapshot(graph);
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        sources = new Port[QUERIES];
+        destinations = new Port[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            sources[i] = network.port(random.nextInt(ports));
+            destinations[i] = network.port(random.nextInt(ports));
+            if (!GraphUtils.bestKmsRoute(network, sources[i], destinations[i]).isEmpty()) {
+                i++;
+            }
+        }
+
+        dijkstraSettled = new long[QUERIES];
+        aStarSettled = new long[QUERIES];
+        bidirectionalSettled = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Port src = sources[i];
+            Port dst = destinations[i];
+            dijkstraSettled[i] = countingNetwork.count(() -> GraphUtils.bestKmsRoute(countingNetwork, src, dst));
+            aStarSettled[i] = countingNetwork.count(() -> GraphUtils.bestKmsRouteAStar(countingNetwork, src, dst));
+            bidirectionalSettled[i] = countingNetwork.count(() ->
+                    GraphUtils.bestKmsRouteBidirectional(countingNetwork, src, dst));
+        }
+    }
+
+    /**
+     * Queries run and ports explored by them, reported next to the time of every benchmark
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Explored {
+        public long queries;
+        public long settledPorts;
+    }
+
+    @Benchmark
+    public List<Route> dijkstra(Explored explored) {
+        int i = counter++ % QUERIES;
+        explored.queries++;
+        explored.settledPorts += dijkstraSettled[i];
+        return GraphUtils.bestKmsRoute(network, sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public List<Route> aStar(Explored explored) {
+        int i = counter++ % QUERIES;
+        explored.queries++;
+        explored.settledPorts += aStarSettled[i];
+        return GraphUtils.bestKmsRouteAStar(network, sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public List<Route> bidirectional(Explored explored) {
+        int i = counter++ % QUERIES;
+        explored.queries++;
+        explored.settledPorts += bidirectionalSettled[i];
+        return GraphUtils.bestKmsRouteBidirectional(network, sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public List<Route> contractionHierarchy() {
+        int i = counter++ % QUERIES;
+        return hierarchy.bestKmsRoute(sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ContractionHierarchy buildContractionHierarchy() {
+        return new ContractionHierarchy(network);
+    }
+
+    /**
+     * Snapshot that counts how many times the routes of a port are read, once per explored port
+     */
+    static class CountingSnapshot extends NetworkSnapshot {
+        private long count;
+
+        CountingSnapshot(DirectedGraph<Port, Route> graph) {
+            super(graph);
+        }
+
+        long count(Runnable search) {
+            count = 0;
+            search.run();
+            return count;
+        }
+
+        @Override
+        public int firstRoute(int port) {
+            count++;
+            return super.firstRoute(port);
+        }
+
+        @Override
+        public int firstIncoming(int port) {
+            count++;
+            return super.firstIncoming(port);
+        }
+    }
+}
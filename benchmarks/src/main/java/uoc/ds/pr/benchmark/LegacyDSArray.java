@@ -0,0 +1,68 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.exceptions.InvalidPositionException;
+import edu.uoc.ds.traversal.Iterator;
+import edu.uoc.ds.traversal.IteratorArrayImpl;
+
+/**
+ * Previous implementation of {@link uoc.ds.pr.util.DSArray}: a fixed size array searched linearly, kept as the
+ * baseline of {@link ShipBenchmark}.
+ */
+public class LegacyDSArray<E> {
+    KeyValue<String, E>[] theArray;
+    int num;
+
+    public LegacyDSArray(int len) {
+        theArray = newArray(len);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> KeyValue<String, E>[] newArray(int length) {
+        return new KeyValue[length];
+    }
+
+    public E get(String id)  {
+
+        for (KeyValue<String, E> kv : theArray) {
+            if (kv == null) {
+                return null;
+            } else if (kv.getKey().equals(id)){
+                return kv.getValue();
+            }
+        }
+        return null;
+    }
+
+    public void put(String id, E elem) {
+        theArray[num++] = new KeyValue<>(id, elem);
+    }
+
+    public void update(String id, E elem) {
+        for (KeyValue<String, E> kv : theArray) {
+            if (kv!=null && kv.getKey().equals(id)){
+                kv.setValue(elem);
+            }
+        }
+    }
+
+    public Iterator<E> values() {
+        final Iterator<KeyValue<String, E>> it = new IteratorArrayImpl<>(theArray, num,0);
+
+        return new Iterator<E>() {
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() throws InvalidPositionException {
+                return it.next().getValue();
+            }
+        };
+    }
+    public int size() {
+        return num;
+    }
+}
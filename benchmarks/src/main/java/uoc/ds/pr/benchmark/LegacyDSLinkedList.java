@@ -1,15 +1,20 @@
-package uoc.ds.pr.util;
+package uoc.ds.pr.benchmark;
 
 import edu.uoc.ds.adt.sequential.LinkedList;
 import edu.uoc.ds.traversal.Iterator;
-import uoc.ds.pr.model.Client;
 
 import java.util.Comparator;
 
-public class DSLinkedList<E> extends LinkedList<E> {
+/**
+ * Linked list searched with a comparator, which kept the categories before they were indexed by a
+ * {@link uoc.ds.pr.util.DSArray}. Kept as the baseline of {@link CategoryBenchmark}.
+ */
+public class LegacyDSLinkedList<E> extends LinkedList<E> {
+    private static final long serialVersionUID = 1L;
+
     Comparator<E> comparator;
 
-    public DSLinkedList(Comparator<E> comparator) {
+    public LegacyDSLinkedList(Comparator<E> comparator) {
         this.comparator = comparator;
     }
 
@@ -0,0 +1,244 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedEdge;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Edge;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import edu.uoc.ds.adt.sequential.Set;
+import edu.uoc.ds.adt.sequential.SetLinkedListImpl;
+import edu.uoc.ds.algorithms.MinimumPaths;
+import edu.uoc.ds.traversal.Iterator;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.Utils;
+
+/**
+ * Previous implementations of the {@link uoc.ds.pr.util.GraphUtils} algorithms, kept as the baseline of the
+ * comparative benchmarks.
+ */
+public final class LegacyGraphUtils {
+
+    private LegacyGraphUtils() {
+        throw new UnsupportedOperationException("This is a utility class and must not be initialized");
+    }
+
+    /**
+     * Recursive search of a path between two vertexes, removing the visited vertexes from the pending list on every
+     * step.
+     */
+    public static <E, L> boolean existConnection(DirectedGraph<E, L> graph, E src, E dst) {
+        Vertex<E> srcVertex = graph.getVertex(src);
+        Vertex<E> dstVertex = graph.getVertex(dst);
+
+        List<Vertex<E>> pending = new LinkedList<>();
+        pending.insertEnd(srcVertex);
+
+        return existConnection(graph, dstVertex, pending, new SetLinkedListImpl<>());
+    }
+
+    private static <E, L> boolean existConnection(DirectedGraph<E, L> graph, Vertex<E> dst,
+                                                  List<Vertex<E>> pending, Set<Vertex<E>> visited) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        if (Utils.contains(pending, dst)) {
+            return true;
+        }
+
+        Vertex<E> src = pending.deleteFirst();
+        pending.insertAll(edgeIteratorToVertexList(graph.edgesWithSource(src)));
+        Utils.removeAll(pending, visited);
+        visited.add(src);
+
+        return existConnection(graph, dst, pending, visited);
+    }
+
+    /**
+     * Exhaustive recursive search of the route with fewer ports, only pruning the routes already contained in the
+     * best route found so far.
+     */
+    public static List<Route> bestPortRoute(DirectedGraph<Port, Route> graph, Port src, Port dst) {
+        Vertex<Port> srcVertex = graph.getVertex(src);
+        Vertex<Port> dstVertex = graph.getVertex(dst);
+
+        List<DirectedEdge<Route, Port>> pending = new LinkedList<>();
+        pending.insertAll(edgeIteratorToDirectedEdgeList(graph.edgesWithSource(srcVertex)));
+
+        return bestPortRoute(graph, dstVertex, pending);
+    }
+
+    private static List<Route> bestPortRoute(DirectedGraph<Port, Route> graph, Vertex<Port> dst,
+                                             List<DirectedEdge<Route, Port>> pending) {
+
+        if (pending.isEmpty()) {
+            return new LinkedList<>();
+        }
+
+        List<Route> bestRoute = new LinkedList<>();
+
+        var it = pending.values();
+        while (it.hasNext()) {
+            var edge = it.next();
+
+            var dstVertex = edge.getVertexDst();
+
+            if (dst.equals(dstVertex)) {
+                List<Route> result = new LinkedList<>();
+                result.insertEnd(edge.getLabel());
+                return result;
+            }
+
+            List<DirectedEdge<Route, Port>> newPending = new LinkedList<>();
+            newPending.insertAll(edgeIteratorToDirectedEdgeList(graph.edgesWithSource(dstVertex)));
+
+            final List<Route> finalBestRoute = bestRoute; // Needed to execute the removeIf function
+            Utils.removeIf(newPending, e -> Utils.contains(finalBestRoute, e.getLabel()));
+
+            List<Route> result = bestPortRoute(graph, dst, newPending);
+            if (!result.isEmpty()) {
+                result.insertBeginning(edge.getLabel());
+                if (bestRoute.isEmpty() || result.size() < bestRoute.size()) {
+                    bestRoute = result;
+                }
+            }
+        }
+
+        return bestRoute;
+    }
+
+    private static <E, L> List<DirectedEdge<L, E>> edgeIteratorToDirectedEdgeList(Iterator<Edge<L, E>> it) {
+        List<DirectedEdge<L, E>> result = new LinkedList<>();
+
+        while (it.hasNext()) {
+            result.insertEnd((DirectedEdge<L, E>) it.next());
+        }
+
+        return result;
+    }
+
+    private static <E, L> List<Vertex<E>> edgeIteratorToVertexList(Iterator<Edge<L, E>> it) {
+        List<Vertex<E>> result = new LinkedList<>();
+
+        while (it.hasNext()) {
+            var e = (DirectedEdge<L, E>) it.next();
+            result.insertEnd(e.getVertexDst());
+        }
+
+        return result;
+    }
+
+    /**
+     * {@link MinimumPaths} from the source port, followed by a walk back from the destination that looks up the
+     * distance of the source of every incoming edge in the whole result array. The labels must be numbers, so the
+     * benchmarks wrap the routes in {@link KmsRoute}.
+     */
+    public static <L extends Number> List<L> bestKmsRoute(DirectedGraph<Port, L> graph, Port src, Port dst) {
+        Vertex<Port> srcVertex = graph.getVertex(src);
+        Vertex<Port> dstVertex = graph.getVertex(dst);
+
+        var minPaths = new MinimumPaths<Port, L>().calculate(graph, srcVertex);
+        if (!isConnected(minPaths, dstVertex)) {
+            return new LinkedList<>();
+        }
+
+        List<L> bestPath = new LinkedList<>();
+
+        boolean sourceFound;
+        do {
+            KeyValue<Vertex<Port>, Number> bestEntry = null;
+            DirectedEdge<L, Port> bestEdge = null;
+
+            var it = graph.edgedWithDestination(dstVertex);
+            while (it.hasNext()) {
+                var edge = (DirectedEdge<L, Port>) it.next();
+
+                KeyValue<Vertex<Port>, Number> edgeEntry = getEntry(minPaths, edge.getVertexSrc());
+                if (bestEntry == null || bestEntry.getValue().doubleValue() > edgeEntry.getValue().doubleValue()) {
+                    bestEntry = edgeEntry;
+                    bestEdge = edge;
+                }
+            }
+
+            bestPath.insertBeginning(bestEdge.getLabel());
+            dstVertex = bestEntry.getKey();
+
+            sourceFound = bestEntry.getKey().equals(srcVertex);
+
+        } while (!sourceFound);
+
+        return bestPath;
+    }
+
+    /**
+     * Checks if a vertex is accessible in the KeyValues array
+     *
+     * @param minPaths min paths KeyValues array, result of {@link edu.uoc.ds.algorithms.MinimumPaths} algorithm
+     * @param dst      destination vertex
+     * @return boolean indicating whether the vertex is accessible or not
+     */
+    private static <K, V extends Number> boolean isConnected(KeyValue<K, V>[] minPaths, K dst) {
+        for (KeyValue<K, V> entry : minPaths) {
+            if (entry.getKey().equals(dst)) {
+                return entry.getValue().doubleValue() != Double.POSITIVE_INFINITY;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an entry in the KeyValues array produced by {@link edu.uoc.ds.algorithms.MinimumPaths}.
+     *
+     * @param minPaths KeyValues array produced by {@link edu.uoc.ds.algorithms.MinimumPaths} algorithm
+     * @param vertex   vertex to find
+     * @return KeyValue of the vertex in the array. Null if not found
+     */
+    private static <K, V extends Number> KeyValue<K, V> getEntry(KeyValue<K, V>[] minPaths, K vertex) {
+        for (KeyValue<K, V> entry : minPaths) {
+            if (entry.getKey().equals(vertex)) {
+                return entry;
+            }
+        }
+        throw new NullPointerException("No entry found for " + vertex);
+    }
+
+    /**
+     * Route labelled with its kms as a {@link Number}, as {@link MinimumPaths} requires
+     */
+    public static class KmsRoute extends Number {
+        private static final long serialVersionUID = 1L;
+
+        private final Route route;
+
+        public KmsRoute(Route route) {
+            this.route = route;
+        }
+
+        public Route getRoute() {
+            return route;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) route.getKms();
+        }
+
+        @Override
+        public long longValue() {
+            return (long) route.getKms();
+        }
+
+        @Override
+        public float floatValue() {
+            return (float) route.getKms();
+        }
+
+        @Override
+        public double doubleValue() {
+            return route.getKms();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Category;
+import uoc.ds.pr.model.Product;
+import uoc.ds.pr.model.Voyage;
+import uoc.ds.pr.util.Utils;
+
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.*;
+
+/**
+ * Compares the menu of a ship, hashed by product and grouped by category, with scanning its whole list of products,
+ * as isProductAvailable and getVoyageProductsByCategory did before, for menus of 500 and 3000 products in
+ * {@link #CATEGORIES} categories. Half of the products looked up are not in the menu.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+
+    public static final int CATEGORIES = 50;
+
+    @Param({"500", "3000"})
+    public int menu;
+
+    private ShippingLinePR2Impl shippingLine;
+    private Voyage voyage;
+    private Product[] products;
+    private Category[] categories;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DSException {
+        shippingLine = new ShippingLinePR2Impl();
+        new DatasetGenerator()
+                .ships(1)
+                .ports(100, 3)
+                .clients(10)
+                .products(CATEGORIES, 2 * menu, menu)
+                .voyages(1)
+                .reservations(0, 0, 0)
+                .orders(0)
+                .populate(shippingLine);
+        voyage = shippingLine.getVoyage(voyageId(0));
+
+        products = new Product[2 * menu];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = shippingLine.getProduct(productId(i));
+        }
+        categories = new Category[CATEGORIES];
+        for (int i = 0; i < CATEGORIES; i++) {
+            categories[i] = shippingLine.getCategory(categoryId(i));
+        }
+    }
+
+    @Benchmark
+    public boolean isProductAvailable() {
+        return voyage.isProductAvailable(products[counter++ % products.length]);
+    }
+
+    @Benchmark
+    public boolean legacyIsProductAvailable() {
+        Product product = products[counter++ % products.length];
+        return Utils.anyMatch(voyage.getShip().products(), p -> p.equals(product));
+    }
+
+    @Benchmark
+    public int getVoyageProductsByCategory() throws DSException {
+        return count(shippingLine.getVoyageProductsByCategory(voyageId(0), categoryId(counter++ % CATEGORIES)));
+    }
+
+    @Benchmark
+    public int legacyGetVoyageProductsByCategory() {
+        Category category = categories[counter++ % CATEGORIES];
+        return count(Utils.filter(voyage.getShip().products(), p -> p.getCategory().equals(category)).values());
+    }
+
+    private static int count(Iterator<Product> it) {
+        int result = 0;
+        while (it.hasNext()) {
+            it.next();
+            result++;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Client;
+import uoc.ds.pr.model.Order;
+import uoc.ds.pr.model.Voyage;
+
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.*;
+
+/**
+ * Benchmarks the catering operations: makeOrder, serveOrder, getOrdersByShip, best5Clients, numOrders and
+ * getVoyageStats.
+ * <p>
+ * Every voyage has reservations and {@link #ORDERS_PER_VOYAGE} orders before the measurement starts. serveOrder is
+ * measured together with makeOrder so the number of pending orders stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    public static final int ORDERS_PER_VOYAGE = 20;
+    public static final int PRODUCTS_PER_ORDER = 3;
+
+    @Param({"5", "25"})
+    public int ships;
+
+    @Param({"1000", "10000"})
+    public int clients;
+
+    @Param({"100", "1000"})
+    public int voyages;
+
+    private DatasetGenerator generator;
+    private ShippingLinePR2 shippingLine;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws DSException {
+        generator = new DatasetGenerator()
+                .ships(ships)
+                .ports(100, 3)
+                .clients(clients)
+                .products(10, 200, 50)
+                .voyages(voyages)
+                .reservations(Math.max(1, clients / voyages), 0, 0.5)
+                .orders(ORDERS_PER_VOYAGE);
+        shippingLine = generator.populate(new ShippingLinePR2Impl());
+        counter = 0;
+    }
+
+    private void makeOrder(int n) throws DSException {
+        int voyage = n % voyages;
+        int client = generator.reservedClient(voyage, (n / voyages) % generator.reservationsPerVoyage());
+        int[] menu = generator.menu(generator.voyageShip(voyage));
+
+        String[] products = new String[PRODUCTS_PER_ORDER];
+        for (int i = 0; i < PRODUCTS_PER_ORDER; i++) {
+            products[i] = productId(menu[(n + i) % menu.length]);
+        }
+        shippingLine.makeOrder(clientId(client), voyageId(voyage), products, 10);
+    }
+
+    @Benchmark
+    public void makeOrder() throws DSException {
+        makeOrder(counter++);
+    }
+
+    @Benchmark
+    public Order makeAndServeOrder() throws DSException {
+        int n = counter++;
+        makeOrder(n);
+        return shippingLine.serveOrder(voyageId(n % voyages));
+    }
+
+    @Benchmark
+    public int numOrders() {
+        return shippingLine.numOrders(voyageId(counter++ % voyages));
+    }
+
+    @Benchmark
+    public Voyage.Stats getVoyageStats() throws DSException {
+        return shippingLine.getVoyageStats(voyageId(counter++ % voyages));
+    }
+
+    @Benchmark
+    public Iterator<Order> getOrdersByShip() throws DSException {
+        return shippingLine.getOrdersByShip(shipId(counter++ % generator.numShips()));
+    }
+
+    @Benchmark
+    public Iterator<Client> best5Clients() throws DSException {
+        return shippingLine.best5Clients();
+    }
+}
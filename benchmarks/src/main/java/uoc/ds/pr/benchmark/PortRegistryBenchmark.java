@@ -0,0 +1,81 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.PortRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link NetworkSnapshot} of a {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} ports network built
+ * from a {@link PortRegistry}, whose ordinals are read from the ports, with the one built from the graph alone, which
+ * hashes ports and vertexes: building the snapshot, and looking up the ordinal of every port as every route query
+ * does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PortRegistryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int ports;
+
+    private DirectedGraph<Port, Route> graph;
+    private PortRegistry registry;
+    private NetworkSnapshot hashedNetwork;
+    private NetworkSnapshot registryNetwork;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 3)
+                .portsNetwork();
+
+        // Ports are registered in reverse order, so the ordinals of the hashed snapshot never match theirs
+        hashedNetwork = new NetworkSnapshot(graph);
+        registry = new PortRegistry();
+        for (int i = hashedNetwork.numPorts() - 1; i >= 0; i--) {
+            Port port = hashedNetwork.port(i);
+            registry.register(port, graph.getVertex(port));
+        }
+        registryNetwork = new NetworkSnapshot(graph, registry);
+    }
+
+    @Benchmark
+    public NetworkSnapshot buildHashed() {
+        return new NetworkSnapshot(graph);
+    }
+
+    @Benchmark
+    public NetworkSnapshot buildFromRegistry() {
+        return new NetworkSnapshot(graph, registry);
+    }
+
+    @Benchmark
+    public long ordinalsHashed() {
+        return sumOrdinals(hashedNetwork, registryNetwork);
+    }
+
+    @Benchmark
+    public long ordinalsFromRegistry() {
+        return sumOrdinals(registryNetwork, registryNetwork);
+    }
+
+    /**
+     * Looks up the ordinal in one snapshot of every port of the other one
+     */
+    private static long sumOrdinals(NetworkSnapshot network, NetworkSnapshot portsOf) {
+        long result = 0;
+        for (int i = 0; i < portsOf.numPorts(); i++) {
+            result += network.ordinal(portsOf.port(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.adt.sequential.List;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.NetworkSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the breadth-first {@link GraphUtils#bestPortRoute} with the previous exhaustive recursive implementation
+ * on {@link DatasetGenerator.Topology#FORWARD} ports networks, where every port has several routes to the following
+ * ports. The query goes from the first to the last port.
+ * <p>
+ * The previous implementation is exponential in the size of the network, so it is measured as single shots. It does
+ * not finish on networks with cycles, which is why the acyclic topology is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortsRouteBenchmark {
+
+    @Param({"20", "30", "40"})
+    public int ports;
+
+    @Param({"3"})
+    public int degree;
+
+    private DirectedGraph<Port, Route> graph;
+    private NetworkSnapshot network;
+    private Port first;
+    private Port last;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.FORWARD)
+                .ports(ports, degree)
+                .portsNetwork();
+
+        var it = graph.vertexs();
+        while (it.hasNext()) {
+            Vertex<Port> vertex = it.next();
+            if (vertex.getValue().getId().equals(DatasetGenerator.portId(0))) {
+                first = vertex.getValue();
+            } else if (vertex.getValue().getId().equals(DatasetGenerator.portId(ports - 1))) {
+                last = vertex.getValue();
+            }
+        }
+
+        network = new NetworkSnapshot(graph);
+    }
+
+    @Benchmark
+    public List<Route> breadthFirst() {
+        return GraphUtils.bestPortRoute(network, first, last);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public List<Route> legacy() {
+        return LegacyGraphUtils.bestPortRoute(graph, first, last);
+    }
+}
@@ -0,0 +1,79 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.helpers.KeyValue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.PortsWithinKms;
+import uoc.ds.pr.util.ShortestPathTree;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares streaming the ports within a distance budget with {@link PortsWithinKms}, which stops the search at the
+ * budget, with building the {@link ShortestPathTree} of the whole network and filtering its ports. Ports use the
+ * {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} topology and queries cycle over {@link #QUERIES} seeded source
+ * ports.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PortsWithinKmsBenchmark {
+
+    public static final int QUERIES = 64;
+
+    @Param({"10000", "100000"})
+    public int ports;
+
+    @Param({"100", "500"})
+    public double maxKms;
+
+    private NetworkSnapshot network;
+    private Port[] sources;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = new NetworkSnapshot(new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 3)
+                .portsNetwork());
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        sources = new Port[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = network.port(random.nextInt(ports));
+        }
+    }
+
+    @Benchmark
+    public int portsWithinKms(Blackhole blackhole) {
+        int count = 0;
+        PortsWithinKms it = new PortsWithinKms(network, sources[counter++ % QUERIES], maxKms);
+        while (it.hasNext()) {
+            KeyValue<Port, Double> next = it.next();
+            blackhole.consume(next);
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int shortestPathTree(Blackhole blackhole) {
+        int count = 0;
+        ShortestPathTree tree = new ShortestPathTree(network, sources[counter++ % QUERIES]);
+        for (int port = 0; port < network.numPorts(); port++) {
+            double distance = tree.distance(network.port(port));
+            if (distance > 0 && distance <= maxKms) {
+                blackhole.consume(network.port(port));
+                count++;
+            }
+        }
+        return count;
+    }
+}
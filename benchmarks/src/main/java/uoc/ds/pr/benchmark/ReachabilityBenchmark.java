@@ -0,0 +1,90 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.ReachabilityIndex;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the breadth-first {@link GraphUtils#existConnection} with the previous recursive implementation on ports
+ * networks of 10k+ ports. The query goes from the first to the last port, which in the
+ * {@link DatasetGenerator.Topology#FORWARD} topology means traversing a long chain of ports. The search runs over a
+ * {@link NetworkSnapshot} built once, as the shipping line does, and {@link #snapshot()} measures how long it takes
+ * to build it. {@link #reachabilityIndex()} answers the same query with a {@link ReachabilityIndex}, and
+ * {@link #buildReachabilityIndex()} measures how long it takes to build it.
+ * <p>
+ * The previous implementation is quadratic (about 20 seconds per query on 10k ports), so it is measured as single
+ * shots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx4g"})
+public class ReachabilityBenchmark {
+
+    @Param({"10000", "20000"})
+    public int ports;
+
+    private DirectedGraph<Port, Route> graph;
+    private NetworkSnapshot network;
+    private ReachabilityIndex index;
+    private Port first;
+    private Port last;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.FORWARD)
+                .ports(ports, 2)
+                .portsNetwork();
+
+        var it = graph.vertexs();
+        while (it.hasNext()) {
+            Vertex<Port> vertex = it.next();
+            if (vertex.getValue().getId().equals(DatasetGenerator.portId(0))) {
+                first = vertex.getValue();
+            } else if (vertex.getValue().getId().equals(DatasetGenerator.portId(ports - 1))) {
+                last = vertex.getValue();
+            }
+        }
+
+        network = new NetworkSnapshot(graph);
+        index = new ReachabilityIndex(network);
+    }
+
+    @Benchmark
+    public boolean breadthFirst() {
+        return GraphUtils.existConnection(network, first, last);
+    }
+
+    @Benchmark
+    public NetworkSnapshot snapshot() {
+        return new NetworkSnapshot(graph);
+    }
+
+    @Benchmark
+    public boolean reachabilityIndex() {
+        return index.existConnection(first, last);
+    }
+
+    @Benchmark
+    public ReachabilityIndex buildReachabilityIndex() {
+        return new ReachabilityIndex(network);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public boolean legacy() {
+        return LegacyGraphUtils.existConnection(graph, first, last);
+    }
+}
@@ -0,0 +1,180 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLine;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Client;
+import uoc.ds.pr.model.Reservation;
+
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.*;
+
+/**
+ * Benchmarks the boarding operations: reserve, load, unload and unloadTime.
+ * <p>
+ * reserve and load consume the state they work on, so they run {@link #BATCH} operations per iteration over a
+ * freshly generated shipping line. unload and unloadTime are measured on a voyage with {@link #VEHICLES} vehicles.
+ * findReservation, which load and reserve run for every client, is measured on a client with a reservation in
+ * every voyage, and compared with the linear search over its reservations it replaced.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationBenchmark {
+
+    public static final int BATCH = 2000;
+    public static final int VEHICLES = 500;
+
+    @State(Scope.Thread)
+    public static class BoardingState {
+
+        @Param({"1000", "10000"})
+        public int clients;
+
+        @Param({"100", "1000"})
+        public int voyages;
+
+        ShippingLinePR2 shippingLine;
+        int counter;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws DSException {
+            shippingLine = new DatasetGenerator()
+                    .ports(100, 3)
+                    .clients(clients)
+                    .voyages(voyages)
+                    .reservations(0, 0, 0)
+                    .orders(0)
+                    .populate(new ShippingLinePR2Impl());
+            counter = 0;
+        }
+
+        String client(int n) {
+            return clientId(n % clients);
+        }
+
+        String voyage(int n) {
+            return voyageId((n / clients) % voyages);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LoadState extends BoardingState {
+
+        @Override
+        @Setup(Level.Iteration)
+        public void setUp() throws DSException {
+            super.setUp();
+            for (int n = 0; n < BATCH; n++) {
+                shippingLine.reserve(new String[]{client(n)}, voyage(n), ShippingLine.AccommodationType.ARMCHAIR,
+                        null, 100);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UnloadState {
+
+        ShippingLinePR2 shippingLine;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void setUp() throws DSException {
+            // A single voyage where every client has a loaded reservation with a vehicle
+            shippingLine = new DatasetGenerator()
+                    .ports(100, 3)
+                    .clients(VEHICLES)
+                    .voyages(1)
+                    .reservations(VEHICLES, 1, 1)
+                    .orders(0)
+                    .populate(new ShippingLinePR2Impl());
+            shippingLine.unload(voyageId(0));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FrequentTravellerState {
+
+        @Param({"10", "500"})
+        public int reservations;
+
+        Client client;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void setUp() throws DSException {
+            ShippingLinePR2 shippingLine = new DatasetGenerator()
+                    .ports(100, 3)
+                    .clients(1)
+                    .voyages(reservations)
+                    .reservations(0, 0, 0)
+                    .orders(0)
+                    .populate(new ShippingLinePR2Impl());
+            for (int i = 0; i < reservations; i++) {
+                shippingLine.reserve(new String[]{clientId(0)}, voyageId(i), ShippingLine.AccommodationType.ARMCHAIR,
+                        null, 100);
+            }
+            client = shippingLine.getClient(clientId(0));
+        }
+
+        String voyage() {
+            return voyageId((int) (counter++ * 7919L % reservations));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public void reserve(BoardingState state) throws DSException {
+        int n = state.counter++;
+        state.shippingLine.reserve(new String[]{state.client(n)}, state.voyage(n),
+                ShippingLine.AccommodationType.ARMCHAIR, null, 100);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public void load(LoadState state) throws DSException {
+        int n = state.counter++;
+        state.shippingLine.load(state.client(n), state.voyage(n), date(0));
+    }
+
+    @Benchmark
+    public Iterator<Reservation> unload(UnloadState state) throws DSException {
+        return state.shippingLine.unload(voyageId(0));
+    }
+
+    @Benchmark
+    public int unloadTime(UnloadState state) throws DSException {
+        int j = state.counter++ % VEHICLES;
+        return state.shippingLine.unloadTime(vehicleId(0, j), voyageId(0));
+    }
+
+    @Benchmark
+    public Reservation findReservation(FrequentTravellerState state) {
+        return state.client.findReservation(state.voyage());
+    }
+
+    @Benchmark
+    public Reservation legacyFindReservation(FrequentTravellerState state) {
+        String idVoyage = state.voyage();
+        Iterator<Reservation> it = state.client.reservations();
+        while (it.hasNext()) {
+            Reservation reservation = it.next();
+            if (reservation.getVoyage().getId().equals(idVoyage)) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+}
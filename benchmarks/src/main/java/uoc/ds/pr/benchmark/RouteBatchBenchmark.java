@@ -0,0 +1,87 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.GraphUtils;
+import uoc.ds.pr.util.NetworkSnapshot;
+import uoc.ds.pr.util.RouteBatch;
+import uoc.ds.pr.util.RouteCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares answering a batch of best route queries with {@link RouteBatch}, which shares one search per source port
+ * and runs the searches in parallel, with answering them one at a time. Every batch has {@link #QUERIES} queries,
+ * half of them by kms and half by ports, from {@code sources} seeded source ports of a
+ * {@link DatasetGenerator.Topology#RANDOM_GEOMETRIC} ports network, so the queries per second are {@link #QUERIES}
+ * divided by the time of every operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RouteBatchBenchmark {
+
+    public static final int QUERIES = 2000;
+
+    @Param({"10000"})
+    public int ports;
+
+    @Param({"20", "200"})
+    public int sources;
+
+    private NetworkSnapshot network;
+    private Map<String, Port> portsById;
+    private RouteBatch.Query[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DirectedGraph<Port, Route> graph = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.RANDOM_GEOMETRIC)
+                .ports(ports, 3)
+                .portsNetwork();
+        network = new NetworkSnapshot(graph);
+        portsById = new HashMap<>();
+        for (int i = 0; i < network.numPorts(); i++) {
+            portsById.put(network.port(i).getId(), network.port(i));
+        }
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        String[] sourceIds = new String[sources];
+        for (int i = 0; i < sources; i++) {
+            sourceIds[i] = network.port(random.nextInt(ports)).getId();
+        }
+        queries = new RouteBatch.Query[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new RouteBatch.Query(sourceIds[random.nextInt(sources)],
+                    network.port(random.nextInt(ports)).getId(),
+                    i % 2 == 0 ? RouteCache.QueryType.KMS : RouteCache.QueryType.PORTS);
+        }
+    }
+
+    @Benchmark
+    public RouteBatch batch() {
+        return new RouteBatch(network, queries, portsById::get);
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) {
+        for (RouteBatch.Query query : queries) {
+            Port src = portsById.get(query.srcPortId());
+            Port dst = portsById.get(query.dstPortId());
+            if (src != dst) {
+                blackhole.consume(query.type() == RouteCache.QueryType.KMS
+                        ? GraphUtils.bestKmsRoute(network, src, dst)
+                        : GraphUtils.bestPortRoute(network, src, dst));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package uoc.ds.pr.benchmark;
+
+import edu.uoc.ds.traversal.Iterator;
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.exceptions.DSException;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.util.ShortestPathTree;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.portId;
+
+/**
+ * Benchmarks the port network queries: existsRouteBetween, getBestKmsRoute, getBestPortsRoute and
+ * getShortestPathTree.
+ * <p>
+ * Ports use the {@link DatasetGenerator.Topology#FORWARD} topology and queries cycle over {@link #QUERIES} seeded
+ * pairs of connected ports. The best routes are measured with the route cache disabled ({@code routeCacheSize=0}) and
+ * enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    public static final int QUERIES = 64;
+
+    @Param({"12", "24"})
+    public int ports;
+
+    @Param({"2", "3"})
+    public int routesPerPort;
+
+    @Param({"0", "4096"})
+    public int routeCacheSize;
+
+    private ShippingLinePR2 shippingLine;
+    private String[] sources;
+    private String[] destinations;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DSException {
+        shippingLine = new DatasetGenerator()
+                .topology(DatasetGenerator.Topology.FORWARD)
+                .ports(ports, routesPerPort)
+                .clients(10)
+                .voyages(10)
+                .populate(new ShippingLinePR2Impl(routeCacheSize));
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        sources = new String[QUERIES];
+        destinations = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int src = random.nextInt(ports - 1);
+            int dst = src + 1 + random.nextInt(ports - src - 1);
+            sources[i] = portId(src);
+            destinations[i] = portId(dst);
+        }
+    }
+
+    @Benchmark
+    public boolean existsRouteBetween() throws DSException {
+        int i = counter++ % QUERIES;
+        return shippingLine.existsRouteBetween(sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public Iterator<Route> getBestKmsRoute() throws DSException {
+        int i = counter++ % QUERIES;
+        return shippingLine.getBestKmsRoute(sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public Iterator<Route> getBestPortsRoute() throws DSException {
+        int i = counter++ % QUERIES;
+        return shippingLine.getBestPortsRoute(sources[i], destinations[i]);
+    }
+
+    @Benchmark
+    public ShortestPathTree getShortestPathTree() throws DSException {
+        return shippingLine.getShortestPathTree(sources[counter++ % QUERIES]);
+    }
+}
@@ -0,0 +1,59 @@
+package uoc.ds.pr.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uoc.ds.pr.ShippingLinePR2Impl;
+import uoc.ds.pr.model.Ship;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static uoc.ds.pr.benchmark.DatasetGenerator.shipId;
+
+/**
+ * Compares getShip, backed by the hashed {@link uoc.ds.pr.util.DSArray}, with the linear search of
+ * {@link LegacyDSArray}, for fleets of 25, 1k and 10k ships. Lookups cycle over {@link #QUERIES} seeded ship IDs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipBenchmark {
+
+    public static final int QUERIES = 1024;
+
+    @Param({"25", "1000", "10000"})
+    public int ships;
+
+    private ShippingLinePR2Impl shippingLine;
+    private LegacyDSArray<Ship> legacyShips;
+    private String[] ids;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shippingLine = new ShippingLinePR2Impl();
+        legacyShips = new LegacyDSArray<>(ships);
+        for (int i = 0; i < ships; i++) {
+            shippingLine.addShip(shipId(i), "Ship " + i, 500, 100, 100, 100, 10);
+            legacyShips.put(shipId(i), shippingLine.getShip(shipId(i)));
+        }
+
+        Random random = new Random(DatasetGenerator.DEFAULT_SEED);
+        ids = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            ids[i] = shipId(random.nextInt(ships));
+        }
+    }
+
+    @Benchmark
+    public Ship getShip() {
+        return shippingLine.getShip(ids[counter++ % QUERIES]);
+    }
+
+    @Benchmark
+    public Ship legacyGetShip() {
+        return legacyShips.get(ids[counter++ % QUERIES]);
+    }
+}
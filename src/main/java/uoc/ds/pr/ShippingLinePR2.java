@@ -1,13 +1,21 @@
 package uoc.ds.pr;
 
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.adt.sequential.List;
 import edu.uoc.ds.traversal.Iterator;
 import uoc.ds.pr.exceptions.*;
 import uoc.ds.pr.model.*;
+import uoc.ds.pr.util.RouteBatch;
+import uoc.ds.pr.util.RouteCache;
+import uoc.ds.pr.util.ShortestPathTree;
+
+import java.util.Date;
 
 
 public interface ShippingLinePR2 extends ShippingLine {
 
     public static final int BEST_5_CLIENTS = 5;
+    public static final int ROUTE_CACHE_SIZE = 4096;
 
     enum LoyaltyLevel {
         DIAMOND,
@@ -16,8 +24,17 @@ public interface ShippingLinePR2 extends ShippingLine {
         BRONZE
     }
 
+    enum KmsAlgorithm {
+        DIJKSTRA,
+        A_STAR,
+        BIDIRECTIONAL,
+        CONTRACTION_HIERARCHY
+    }
+
     public void addPort(String id, String name, String imageUrl, String description);
 
+    public void addPort(String id, String name, String imageUrl, String description, double latitude, double longitude);
+
     public void addCategory(String id, String name);
 
     public void addProduct(String id, String name, String description, String idCategory) throws CategoryNotFoundException;
@@ -54,8 +71,26 @@ public interface ShippingLinePR2 extends ShippingLine {
 
     public Iterator<Route> getBestKmsRoute(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
 
+    public Iterator<Route> getBestKmsRoute(String idAPort, String idBPort, KmsAlgorithm algorithm) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
+
     public Iterator<Route> getBestPortsRoute(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
 
+    public RouteBatch getBestRoutes(RouteBatch.Query[] queries);
+
+    public ShortestPathTree getShortestPathTree(String idPort) throws SrcPortNotFoundException;
+
+    public Iterator<KeyValue<Port, Double>> getPortsWithinKms(String idPort, double maxKms) throws SrcPortNotFoundException;
+
+    public void addHubPort(String idPort) throws SrcPortNotFoundException;
+
+    public void removeHubPort(String idPort) throws SrcPortNotFoundException;
+
+    public Iterator<List<Route>> getKBestKmsRoutes(String idAPort, String idBPort, int k) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
+
+    public Iterator<List<Route>> getParetoRoutes(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
+
+    public Iterator<Voyage> getEarliestArrivalItinerary(String idAPort, String idBPort, Date departureDt) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException;
+
 
     ////////////
     public int numPorts();
@@ -69,5 +104,9 @@ public interface ShippingLinePR2 extends ShippingLine {
 
     public int numOrders(String voyageId);
 
+    public Voyage.Stats getVoyageStats(String voyageId) throws VoyageNotFoundException;
+
     public Category getCategory(String id);
+
+    public RouteCache.Stats getRouteCacheStats();
 }
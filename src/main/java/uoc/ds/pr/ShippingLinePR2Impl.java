@@ -1,5 +1,6 @@
 package uoc.ds.pr;
 
+import edu.uoc.ds.adt.helpers.KeyValue;
 import edu.uoc.ds.adt.nonlinear.Dictionary;
 import edu.uoc.ds.adt.nonlinear.DictionaryAVLImpl;
 import edu.uoc.ds.adt.nonlinear.HashTable;
@@ -12,10 +13,14 @@ import uoc.ds.pr.exceptions.*;
 import uoc.ds.pr.model.*;
 import uoc.ds.pr.util.*;
 
-import java.util.Comparator;
 import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class ShippingLinePR2Impl implements ShippingLinePR2 {
@@ -25,10 +30,25 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
     private Dictionary<String, Client> clients;
     private Dictionary<String, Voyage> voyages;
     private HashTable<String, Port> ports;
-    private DSLinkedList<Category> categories;
+    private DSArray<Category> categories;
     private HashTable<String, Product> products;
     private Dictionary<String, Order> orders;
     private DirectedGraph<Port, Route> portsNetwork;
+    private PortRegistry portRegistry;
+    private NetworkSnapshot networkSnapshot;
+    private ReachabilityIndex reachabilityIndex;
+    private VoyageTimetable voyageTimetable;
+    private ContractionHierarchy contractionHierarchy;
+    private HubDistances hubDistances;
+    private boolean contractionHierarchyEnabled;
+    private long networkVersion;
+    private RouteCache routeCache;
+    private ExecutorService allPairsExecutor;
+    private Future<AllPairsRoutes> allPairsUpdate;
+    private long allPairsUpdateVersion;
+    private volatile AllPairsRoutes allPairsRoutes;
+    private Throwable allPairsFailure;
+    private long allPairsFailureVersion;
 
     private OrderedVector<Client>  bestClient;
     private OrderedVector<Client> bestClientByOrders;
@@ -39,18 +59,27 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
 
 
     public ShippingLinePR2Impl() {
+        this(ROUTE_CACHE_SIZE);
+    }
+
+    /**
+     * @param routeCacheSize maximum number of best routes kept in the cache. 0 disables the cache
+     */
+    public ShippingLinePR2Impl(int routeCacheSize) {
         ships = new DSArray<>(MAX_NUM_SHIPS);
         routes = new HashTable<>();
         clients = new DictionaryAVLImpl<>();
         voyages = new DictionaryAVLImpl<>();
         ports = new HashTable<>();
-        categories = new DSLinkedList<>(Comparator.comparing(Category::getId));
+        categories = new DSArray<>(16);
         products = new HashTable<>();
         orders = new DictionaryAVLImpl<>();
         bestClient = new OrderedVector<>(MAX_CLIENTS, Client.CMP_V);
         bestClientByOrders = new OrderedVector<>(5, Client.CMP_ORDER);
         bestRoute = new OrderedVector<>(1, Route.CMP_V);
         portsNetwork = new DirectedGraphImpl<>();
+        portRegistry = new PortRegistry();
+        routeCache = new RouteCache(routeCacheSize);
     }
 
 
@@ -79,30 +108,39 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
         }
 
         Route route = getRoute(id);
+        Port previousDst = null;
+        boolean redundant = false;
         if (route == null) {
             route = new Route(id, srcPort, dstPort, kms);
             this.routes.put(id, route);
+            // A route between two connected ports does not change which ports are connected
+            redundant = reachabilityIndex != null && reachabilityIndex.existConnection(srcPort, dstPort);
         }
         else {
             route.getSrcPort().removeRoute(route);
+            previousDst = route.getDstPort();
 
             // Remove the edge between the old ports before updating
-            var oldSrcVertex = portsNetwork.getVertex(route.getSrcPort());
-            var oldDstVertex = portsNetwork.getVertex(route.getDstPort());
+            var oldSrcVertex = portRegistry.vertex(route.getSrcPort());
+            var oldDstVertex = portRegistry.vertex(route.getDstPort());
             Optional.ofNullable(portsNetwork.getEdge(oldSrcVertex, oldDstVertex))
                     .ifPresent(edge -> portsNetwork.deleteEdge(edge));
 
-            route.update(srcPort, dstPort);
+            route.update(srcPort, dstPort, kms);
         }
         srcPort.addRoute(route);
 
         // Get or create the new edge
-        var srcVertex = portsNetwork.getVertex(srcPort);
-        var dstVertex = portsNetwork.getVertex(dstPort);
+        var srcVertex = portRegistry.vertex(srcPort);
+        var dstVertex = portRegistry.vertex(dstPort);
 
         var edge = Optional.ofNullable(portsNetwork.getEdge(srcVertex, dstVertex))
                 .orElseGet(() -> portsNetwork.newEdge(srcVertex, dstVertex));
         edge.setLabel(route);
+        if (hubDistances != null) {
+            hubDistances.updateRoute(route, previousDst);
+        }
+        invalidateNetwork(!redundant);
     }
 
     public void addClient(String id, String name, String surname) {
@@ -126,7 +164,19 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
         }
         port = new Port(id, imageUrl, description, name);
         ports.put(id, port);
-        portsNetwork.newVertex(port);
+        portRegistry.register(port, portsNetwork.newVertex(port));
+        invalidateNetwork(true);
+    }
+
+    @Override
+    public void addPort(String id, String name, String imageUrl, String description, double latitude, double longitude) {
+        addPort(id, name, imageUrl, description);
+        Port port = getPort(id);
+        if (!port.hasCoordinates() || port.getLatitude() != latitude || port.getLongitude() != longitude) {
+            // The snapshot keeps the coordinates of the ports, but the ports that are connected do not change
+            port.setCoordinates(latitude, longitude);
+            invalidateNetwork(false);
+        }
     }
 
     @Override
@@ -137,7 +187,7 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
             return;
         }
         category = new Category(id, name);
-        categories.insertEnd(category);
+        categories.put(id, category);
     }
 
     @Override
@@ -148,7 +198,14 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
 
         Product product = getProduct(id);
         if (product != null) {
+            Category previous = product.getCategory();
             product.update(name, description, category);
+            if (!category.equals(previous)) {
+                Iterator<Ship> it = ships.values();
+                while (it.hasNext()) {
+                    it.next().updateProductCategory(product);
+                }
+            }
         } else {
             product = new Product(id, name, description, category);
             products.put(id, product);
@@ -172,6 +229,7 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
             voyages.put(id, voyage);
             route.addVoyage(voyage);
             updateBestRoute(voyage.getRoute());
+            voyageTimetable = null;
         }
         else {
             if (!idRoute.equals(voyage.getRoute().getId())) {
@@ -180,6 +238,7 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
                 route.addVoyage(voyage);
             }
             voyage.update(departureDt, arrivalDt, ship, route);
+            voyageTimetable = null;
         }
 
     }
@@ -382,7 +441,7 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
         final Ship ship = Optional.ofNullable(getShip(shipId))
                 .orElseThrow(ShipNotFoundException::new);
 
-        if (Utils.anyMatch(ship.products(), p -> p.equals(product))) {
+        if (ship.hasProduct(product)) {
             throw new ProductAlreadyOnMenuException();
         }
 
@@ -397,7 +456,7 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
         final Ship ship = Optional.ofNullable(getShip(shipId))
                 .orElseThrow(ShipNotFoundException::new);
 
-        if (!Utils.anyMatch(ship.products(), p -> p.equals(product))) {
+        if (!ship.hasProduct(product)) {
             throw new ProductNotInMenuException();
         }
         ship.deleteProduct(product);
@@ -411,11 +470,10 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
         final Category category = Optional.ofNullable(getCategory(categoryId))
                 .orElseThrow(CategoryNotFoundException::new);
 
-        List<Product> productsByCategory = Utils.filter(voyage.getShip().products(), p -> p.getCategory().equals(category));
-        if (productsByCategory.isEmpty()) {
+        if (voyage.getShip().numProducts(category) < 1) {
             throw new NoProductsException();
         }
-        return productsByCategory.values();
+        return voyage.getShip().products(category);
     }
 
     @Override
@@ -587,14 +645,28 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
     @Override
     public boolean existsRouteBetween(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException {
         Port[] queryPorts = getPorts(idAPort, idBPort);
-        return GraphUtils.existConnection(portsNetwork, queryPorts[0], queryPorts[1]);
+        return getReachabilityIndex().existConnection(queryPorts[0], queryPorts[1]);
     }
 
     @Override
     public Iterator<Route> getBestKmsRoute(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
+        return getBestRoute(RouteCache.QueryType.KMS, idAPort, idBPort).values();
+    }
+
+    /**
+     * Unlike {@link #getBestKmsRoute(String, String)}, the route is always searched with the given algorithm, without
+     * the route cache nor the all pairs routes
+     */
+    @Override
+    public Iterator<Route> getBestKmsRoute(String idAPort, String idBPort, KmsAlgorithm algorithm) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
         Port[] queryPorts = getPorts(idAPort, idBPort);
 
-        var result = GraphUtils.bestKmsRoute(portsNetwork, queryPorts[0], queryPorts[1]);
+        List<Route> result = switch (algorithm) {
+            case DIJKSTRA -> GraphUtils.bestKmsRoute(getNetworkSnapshot(), queryPorts[0], queryPorts[1]);
+            case A_STAR -> GraphUtils.bestKmsRouteAStar(getNetworkSnapshot(), queryPorts[0], queryPorts[1]);
+            case BIDIRECTIONAL -> GraphUtils.bestKmsRouteBidirectional(getNetworkSnapshot(), queryPorts[0], queryPorts[1]);
+            case CONTRACTION_HIERARCHY -> getContractionHierarchy().bestKmsRoute(queryPorts[0], queryPorts[1]);
+        };
         if (result.isEmpty()) {
             throw new NoRouteException();
         }
@@ -604,9 +676,72 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
 
     @Override
     public Iterator<Route> getBestPortsRoute(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
+        return getBestRoute(RouteCache.QueryType.PORTS, idAPort, idBPort).values();
+    }
+
+    /**
+     * Unlike {@link #getBestKmsRoute(String, String)} and {@link #getBestPortsRoute(String, String)}, the routes are
+     * always searched in parallel over the current ports network, without the route cache nor the all pairs routes
+     */
+    @Override
+    public RouteBatch getBestRoutes(RouteBatch.Query[] queries) {
+        return new RouteBatch(getNetworkSnapshot(), queries, this::getPort);
+    }
+
+    @Override
+    public ShortestPathTree getShortestPathTree(String idPort) throws SrcPortNotFoundException {
+        Port port = Optional.ofNullable(getPort(idPort))
+                .orElseThrow(SrcPortNotFoundException::new);
+
+        return new ShortestPathTree(getNetworkSnapshot(), port);
+    }
+
+    /**
+     * The ports are settled while the iterator is consumed, over the ports network at the time of the call
+     */
+    @Override
+    public Iterator<KeyValue<Port, Double>> getPortsWithinKms(String idPort, double maxKms) throws SrcPortNotFoundException {
+        if (maxKms < 0) {
+            throw new IllegalArgumentException("The distance budget cannot be negative");
+        }
+        Port port = Optional.ofNullable(getPort(idPort))
+                .orElseThrow(SrcPortNotFoundException::new);
+
+        return new PortsWithinKms(getNetworkSnapshot(), port, maxKms);
+    }
+
+    @Override
+    public Iterator<List<Route>> getKBestKmsRoutes(String idAPort, String idBPort, int k) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one route must be requested");
+        }
+        Port[] queryPorts = getPorts(idAPort, idBPort);
+
+        List<List<Route>> result = KShortestRoutes.bestKmsRoutes(getNetworkSnapshot(), queryPorts[0], queryPorts[1], k);
+        if (result.isEmpty()) {
+            throw new NoRouteException();
+        }
+
+        return result.values();
+    }
+
+    @Override
+    public Iterator<List<Route>> getParetoRoutes(String idAPort, String idBPort) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
+        Port[] queryPorts = getPorts(idAPort, idBPort);
+
+        List<List<Route>> result = ParetoRoutes.bestRoutes(getNetworkSnapshot(), queryPorts[0], queryPorts[1]);
+        if (result.isEmpty()) {
+            throw new NoRouteException();
+        }
+
+        return result.values();
+    }
+
+    @Override
+    public Iterator<Voyage> getEarliestArrivalItinerary(String idAPort, String idBPort, Date departureDt) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
         Port[] queryPorts = getPorts(idAPort, idBPort);
 
-        var result = GraphUtils.bestPortRoute(portsNetwork, queryPorts[0], queryPorts[1]);
+        List<Voyage> result = getVoyageTimetable().earliestArrival(queryPorts[0], queryPorts[1], departureDt);
         if (result.isEmpty()) {
             throw new NoRouteException();
         }
@@ -641,18 +776,343 @@ public class ShippingLinePR2Impl implements ShippingLinePR2 {
 
     @Override
     public int numOrders(String voyageId) {
-        return Utils.count(orders.values(), o -> o.getVoyage().getId().equals(voyageId));
+        Voyage voyage = getVoyage(voyageId);
+        return voyage != null ? voyage.numOrders() : 0;
+    }
+
+    @Override
+    public Voyage.Stats getVoyageStats(String voyageId) throws VoyageNotFoundException {
+        return Optional.ofNullable(getVoyage(voyageId))
+                .orElseThrow(VoyageNotFoundException::new)
+                .getStats();
     }
 
     @Override
     public Category getCategory(String id) {
-        return categories.get(new Category(id));
+        return categories.get(id);
     }
 
     public Product getProduct(String id) {
         return products.get(id);
     }
 
+    /**
+     * Returns the snapshot of the ports network used by the route queries, building it again if ports or routes have
+     * changed since the last one
+     *
+     * @return snapshot of the current ports network
+     */
+    private NetworkSnapshot getNetworkSnapshot() {
+        if (networkSnapshot == null) {
+            networkSnapshot = new NetworkSnapshot(portsNetwork, portRegistry);
+        }
+        return networkSnapshot;
+    }
+
+    @Override
+    public RouteCache.Stats getRouteCacheStats() {
+        return routeCache.getStats();
+    }
+
+    /**
+     * Enables the all pairs mode: the best routes based on the distance between every pair of ports are calculated
+     * in background, and {@link #getBestKmsRoute(String, String)} walks them instead of searching the ports network.
+     * After the ports network changes, the routes are calculated again in background while the previous ones keep
+     * being used. Networks larger than {@link AllPairsRoutes#MAX_PORTS} ports are not calculated, and neither is a
+     * network whose calculation has failed until it changes again: their routes are searched in the ports network,
+     * and {@link #getAllPairsRoutesFailure()} returns the reason.
+     */
+    public void enableAllPairsRoutes() {
+        if (allPairsExecutor == null) {
+            allPairsExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "all-pairs-routes");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        updateAllPairsRoutes();
+    }
+
+    public void disableAllPairsRoutes() {
+        if (allPairsExecutor != null) {
+            allPairsExecutor.shutdownNow();
+            allPairsExecutor = null;
+        }
+        allPairsUpdate = null;
+        allPairsRoutes = null;
+        allPairsFailure = null;
+    }
+
+    public boolean isAllPairsRoutesEnabled() {
+        return allPairsExecutor != null;
+    }
+
+    /**
+     * @return why the all pairs routes of the current ports network are not available: the network exceeds
+     * {@link AllPairsRoutes#MAX_PORTS} ports or their calculation has failed. Null if they are available or being
+     * calculated
+     */
+    public Throwable getAllPairsRoutesFailure() {
+        if (allPairsUpdate != null && allPairsUpdate.isDone()) {
+            collectAllPairsUpdate();
+        }
+        return allPairsFailure != null && allPairsFailureVersion == networkVersion ? allPairsFailure : null;
+    }
+
+    /**
+     * Starts calculating the all pairs routes of the current ports network in background, unless they are up to date,
+     * they are already being calculated, or they cannot be calculated for the current ports network
+     *
+     * @return calculation of the routes. Null if the all pairs mode is disabled, the routes are up to date or they
+     * cannot be calculated
+     */
+    public Future<AllPairsRoutes> updateAllPairsRoutes() {
+        if (allPairsExecutor == null) {
+            return null;
+        }
+        if (allPairsUpdate != null) {
+            if (!allPairsUpdate.isDone()) {
+                return allPairsUpdate;
+            }
+            collectAllPairsUpdate();
+        }
+        if (allPairsRoutes != null && allPairsRoutes.getVersion() == networkVersion) {
+            return null;
+        }
+        if (allPairsFailure != null && allPairsFailureVersion == networkVersion) {
+            return null;
+        }
+
+        NetworkSnapshot network = getNetworkSnapshot();
+        long version = networkVersion;
+        if (network.numPorts() > AllPairsRoutes.MAX_PORTS) {
+            allPairsFailure = new IllegalArgumentException("All pairs routes are limited to " + AllPairsRoutes.MAX_PORTS
+                    + " ports, and the ports network has " + network.numPorts());
+            allPairsFailureVersion = version;
+            allPairsRoutes = null;
+            return null;
+        }
+
+        allPairsUpdateVersion = version;
+        allPairsUpdate = allPairsExecutor.submit(() -> {
+            AllPairsRoutes result = new AllPairsRoutes(network, version);
+            if (!Thread.currentThread().isInterrupted()) {
+                allPairsRoutes = result;
+            }
+            return result;
+        });
+        return allPairsUpdate;
+    }
+
+    /**
+     * Records the failure of the last calculation of the all pairs routes, which has finished, so the same ports
+     * network is not calculated again
+     */
+    private void collectAllPairsUpdate() {
+        try {
+            allPairsUpdate.get();
+            allPairsFailure = null;
+        } catch (ExecutionException e) {
+            allPairsFailure = e.getCause();
+            allPairsFailureVersion = allPairsUpdateVersion;
+        } catch (InterruptedException | CancellationException e) {
+            // Interrupted by disableAllPairsRoutes, the routes were not calculated
+        }
+        allPairsUpdate = null;
+    }
+
+    /**
+     * Waits until the all pairs routes of the current ports network are calculated
+     *
+     * @return the all pairs routes of the current ports network. Null if the all pairs mode is disabled
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws ExecutionException   if the routes of the current ports network cannot be calculated, with the reason
+     *                              returned by {@link #getAllPairsRoutesFailure()} as its cause
+     */
+    public AllPairsRoutes awaitAllPairsRoutes() throws InterruptedException, ExecutionException {
+        Future<AllPairsRoutes> update;
+        while ((update = updateAllPairsRoutes()) != null) {
+            update.get();
+        }
+        Throwable failure = getAllPairsRoutesFailure();
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return allPairsRoutes;
+    }
+
+    /**
+     * Returns the last all pairs routes calculated, starting a new calculation if the ports network has changed
+     *
+     * @return the last all pairs routes calculated. Null if the all pairs mode is disabled or they are being
+     * calculated for the first time
+     */
+    private AllPairsRoutes getAllPairsRoutes() {
+        if (allPairsExecutor == null) {
+            return null;
+        }
+        updateAllPairsRoutes();
+        return allPairsRoutes;
+    }
+
+    /**
+     * The best routes based on the distance from a hub are taken from its shortest path tree, which is repaired
+     * instead of calculated again when ports or routes are added or updated. The trees are kept from the first hub
+     * added, so the ports network is not tracked while there are no hubs
+     */
+    @Override
+    public void addHubPort(String idPort) throws SrcPortNotFoundException {
+        Port port = Optional.ofNullable(getPort(idPort))
+                .orElseThrow(SrcPortNotFoundException::new);
+        if (hubDistances == null) {
+            hubDistances = new HubDistances(portRegistry, portsNetwork);
+        }
+        hubDistances.addHub(port);
+    }
+
+    @Override
+    public void removeHubPort(String idPort) throws SrcPortNotFoundException {
+        Port port = Optional.ofNullable(getPort(idPort))
+                .orElseThrow(SrcPortNotFoundException::new);
+        if (hubDistances != null) {
+            hubDistances.removeHub(port);
+        }
+    }
+
+    /**
+     * @return best routes from the hubs. Null until the first hub is added
+     */
+    public HubDistances getHubDistances() {
+        return hubDistances;
+    }
+
+    /**
+     * Enables the contraction hierarchy mode: the best routes based on the distance that are not in the route cache
+     * nor in the all pairs routes are searched in a contraction hierarchy of the ports network. The hierarchy is
+     * built now, and built again on the next query after ports or routes are added.
+     */
+    public void enableContractionHierarchy() {
+        contractionHierarchyEnabled = true;
+        getContractionHierarchy();
+    }
+
+    public void disableContractionHierarchy() {
+        contractionHierarchyEnabled = false;
+        contractionHierarchy = null;
+    }
+
+    public boolean isContractionHierarchyEnabled() {
+        return contractionHierarchyEnabled;
+    }
+
+    /**
+     * @return contraction hierarchy of the current ports network, built again if ports or routes have changed since
+     * the last one
+     */
+    private ContractionHierarchy getContractionHierarchy() {
+        if (contractionHierarchy == null) {
+            contractionHierarchy = new ContractionHierarchy(getNetworkSnapshot());
+        }
+        return contractionHierarchy;
+    }
+
+    /**
+     * Returns the best route between two ports. Routes based on the distance are taken from the all pairs routes
+     * when that mode is enabled, or from the shortest path tree of the source port when it is a hub. Otherwise, routes
+     * are taken from the cache if they were already calculated for the current ports network
+     *
+     * @param type      type of query
+     * @param srcPortId source port ID
+     * @param dstPortId destination port ID
+     * @return list containing the best route
+     * @throws SamePortException        when both IDs are equal
+     * @throws SrcPortNotFoundException when source port is not found
+     * @throws DstPortNotFoundException when destination port is not found
+     * @throws NoRouteException         when the ports are not connected
+     */
+    private List<Route> getBestRoute(RouteCache.QueryType type, String srcPortId, String dstPortId) throws SamePortException, SrcPortNotFoundException, DstPortNotFoundException, NoRouteException {
+        Port[] queryPorts = getPorts(srcPortId, dstPortId);
+
+        if (type == RouteCache.QueryType.KMS) {
+            AllPairsRoutes allPairs = getAllPairsRoutes();
+            if (allPairs != null && allPairs.contains(queryPorts[0], queryPorts[1])) {
+                // Routes of a previous network are used while they are still valid. Otherwise, the network is searched
+                List<Route> result = allPairs.bestKmsRoute(queryPorts[0], queryPorts[1]);
+                boolean current = allPairs.getVersion() == networkVersion;
+                if (result != null && !result.isEmpty()) {
+                    return result;
+                }
+                if (result != null && current) {
+                    throw new NoRouteException();
+                }
+            }
+            if (hubDistances != null && hubDistances.isHub(queryPorts[0])) {
+                List<Route> result = hubDistances.bestKmsRoute(queryPorts[0], queryPorts[1]);
+                if (result.isEmpty()) {
+                    throw new NoRouteException();
+                }
+                return result;
+            }
+        }
+
+        List<Route> result = routeCache.get(type, srcPortId, dstPortId, networkVersion);
+        if (result == null) {
+            result = type == RouteCache.QueryType.KMS
+                    ? (contractionHierarchyEnabled
+                        ? getContractionHierarchy().bestKmsRoute(queryPorts[0], queryPorts[1])
+                        : GraphUtils.bestKmsRoute(getNetworkSnapshot(), queryPorts[0], queryPorts[1]))
+                    : GraphUtils.bestPortRoute(getNetworkSnapshot(), queryPorts[0], queryPorts[1]);
+            routeCache.put(type, srcPortId, dstPortId, networkVersion, result);
+        }
+
+        if (result.isEmpty()) {
+            throw new NoRouteException();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the reachability index of the ports network, building it again if the ports that are connected may have
+     * changed since the last one
+     *
+     * @return reachability index of the current ports network
+     */
+    private ReachabilityIndex getReachabilityIndex() {
+        if (reachabilityIndex == null) {
+            reachabilityIndex = new ReachabilityIndex(getNetworkSnapshot());
+        }
+        return reachabilityIndex;
+    }
+
+    /**
+     * @return timetable of the current voyages, built again after voyages are added or updated or the ports network
+     * changes
+     */
+    private VoyageTimetable getVoyageTimetable() {
+        if (voyageTimetable == null) {
+            voyageTimetable = new VoyageTimetable(getNetworkSnapshot(), voyages.values());
+        }
+        return voyageTimetable;
+    }
+
+    /**
+     * Discards the structures built from the ports network, so they are built again on the next query, and starts a
+     * new version of the network so cached routes are discarded too
+     *
+     * @param reachability whether the reachability index must be discarded too. It can be kept when ports are not
+     *                     added and the ports that are connected do not change
+     */
+    private void invalidateNetwork(boolean reachability) {
+        networkVersion++;
+        networkSnapshot = null;
+        voyageTimetable = null;
+        contractionHierarchy = null;
+        if (reachability) {
+            reachabilityIndex = null;
+        }
+    }
+
     /**
      * Queries and returns an array with the two ports, searched by ID
      *
@@ -4,6 +4,7 @@ import edu.uoc.ds.adt.sequential.LinkedList;
 import edu.uoc.ds.adt.sequential.List;
 import edu.uoc.ds.traversal.Iterator;
 import uoc.ds.pr.ShippingLinePR2;
+import uoc.ds.pr.util.DSArray;
 import uoc.ds.pr.util.LoyaltyLevel;
 import uoc.ds.pr.util.Utils;
 
@@ -20,6 +21,8 @@ public class Client implements Comparable<Client> {
     private String surname;
 
     private List<Reservation> reservations;
+    // First reservation of the client in every voyage, by voyage ID
+    private DSArray<Reservation> reservationsByVoyage;
     private List<Voyage> voyages;
     private List<Order> orders;
 
@@ -29,6 +32,7 @@ public class Client implements Comparable<Client> {
         this.name = name;
         this.surname = surname;
         this.reservations = new LinkedList<>();
+        this.reservationsByVoyage = new DSArray<>(4);
         this.voyages = new LinkedList<>();
         this.orders = new LinkedList<>();
     }
@@ -67,19 +71,15 @@ public class Client implements Comparable<Client> {
     }
 
     public boolean hasReservation(Voyage voyage) {
-        Iterator<Reservation> it = reservations.values();
-        boolean found = false;
-        Reservation reserve  = null;
-        while (!found && it.hasNext()) {
-            reserve = it.next();
-            found = reserve.getVoyage().equals(voyage);
-
-        }
-        return found;
+        return findReservation(voyage.getId()) != null;
     }
 
     public void addReservation(Reservation reserve) {
         reservations.insertEnd(reserve);
+        String idVoyage = reserve.getVoyage().getId();
+        if (reservationsByVoyage.get(idVoyage) == null) {
+            reservationsByVoyage.put(idVoyage, reserve);
+        }
     }
 
     public Iterator<Reservation> reservations() {
@@ -87,15 +87,7 @@ public class Client implements Comparable<Client> {
     }
 
     public Reservation findReservation(String idVoyage) {
-        Iterator<Reservation> it = reservations();
-        boolean found = false;
-        Reservation reservation = null;
-        while (!found && it.hasNext()) {
-            reservation = it.next();
-            found = reservation.getVoyage().getId().equals(idVoyage);
-        }
-
-        return (found?reservation:null);
+        return reservationsByVoyage.get(idVoyage);
     }
 
     public void addVoyage(Voyage voyage) {
@@ -13,13 +13,22 @@ public class Port {
     private String name;
     private String imageUrl;
     private String description;
+    private double latitude;
+    private double longitude;
+    private int ordinal = -1;
     private List<Route> originRoutes;
 
     public Port(String id, String imageUrl, String description, String name) {
+        this(id, imageUrl, description, name, Double.NaN, Double.NaN);
+    }
+
+    public Port(String id, String imageUrl, String description, String name, double latitude, double longitude) {
         this.id = id;
         this.imageUrl = imageUrl;
         this.description = description;
         this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
         this.originRoutes = new LinkedList<>();
     }
 
@@ -61,6 +70,41 @@ public class Port {
         this.description = description;
     }
 
+    /**
+     * @return latitude of the port in degrees. NaN if it is unknown
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return longitude of the port in degrees. NaN if it is unknown
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setCoordinates(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    /**
+     * @return dense ordinal assigned by the {@link uoc.ds.pr.util.PortRegistry} where the port is registered. -1 if
+     * it is not registered
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -1,16 +1,17 @@
 package uoc.ds.pr.model;
 
 import edu.uoc.ds.adt.helpers.Position;
-import edu.uoc.ds.adt.nonlinear.Dictionary;
-import edu.uoc.ds.adt.nonlinear.DictionaryAVLImpl;
-import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.DoublyLinkedList;
 import edu.uoc.ds.adt.sequential.List;
 import edu.uoc.ds.traversal.Iterator;
+import edu.uoc.ds.traversal.IteratorArrayImpl;
 import uoc.ds.pr.exceptions.ProductNotInMenuException;
-import uoc.ds.pr.util.Utils;
+import uoc.ds.pr.util.DSArray;
 
 public class Ship {
 
+    private static final Product[] NO_PRODUCTS = new Product[0];
+
     private String id;
     private String name;
     private int nArmChairs;
@@ -18,6 +19,10 @@ public class Ship {
     private int nCabins4;
     private int nParkingLots;
     private final List<Product> products;
+    // Products of the menu by product ID, and the products of every category of the menu by category ID. The list of
+    // a category is kept once it has been used, even if it becomes empty, since categories are never deleted
+    private final DSArray<MenuEntry> menu;
+    private final DSArray<List<Product>> productsByCategory;
 
 
     private int unLoadTimeinMinutes;
@@ -26,7 +31,9 @@ public class Ship {
     public Ship(String id, String name, int nArmChairs, int nCabins2, int nCabins4, int nParkingLots, int unLoadTimeinMinutes) {
         setId(id);
         update(name, nArmChairs, nCabins2, nCabins4, nParkingLots, unLoadTimeinMinutes);
-        products = new LinkedList<>();
+        products = new DoublyLinkedList<>();
+        menu = new DSArray<>(4);
+        productsByCategory = new DSArray<>(4);
     }
 
 
@@ -96,23 +103,77 @@ public class Ship {
         this.nParkingLots = nParkingLots;
     }
 
+    /**
+     * Adds a product that is not in the menu yet at the end of the menu and of the products of its category
+     */
     public void addProduct(Product product) {
-        products.insertEnd(product);
+        Position<Product> position = products.insertEnd(product);
+        String categoryId = product.getCategory().getId();
+        Position<Product> categoryPosition = categoryProducts(categoryId).insertEnd(product);
+        menu.put(product.getId(), new MenuEntry(position, categoryId, categoryPosition));
     }
 
     public void deleteProduct(Product product) throws ProductNotInMenuException {
-        Position<Product> pos = Utils.find(products.positions(), p -> p.equals(product))
-                        .orElseThrow(ProductNotInMenuException::new);
-        products.delete(pos);
+        MenuEntry entry = menu.delete(product.getId());
+        if (entry == null) {
+            throw new ProductNotInMenuException();
+        }
+        products.delete(entry.position);
+        productsByCategory.get(entry.categoryId).delete(entry.categoryPosition);
+    }
+
+    /**
+     * Moves a product of the menu to the end of the products of its current category, after it has changed.
+     * Products that are not in the menu or whose category has not changed are ignored
+     */
+    public void updateProductCategory(Product product) {
+        MenuEntry entry = menu.get(product.getId());
+        String categoryId = product.getCategory().getId();
+        if (entry != null && !entry.categoryId.equals(categoryId)) {
+            productsByCategory.get(entry.categoryId).delete(entry.categoryPosition);
+            Position<Product> categoryPosition = categoryProducts(categoryId).insertEnd(product);
+            menu.update(product.getId(), new MenuEntry(entry.position, categoryId, categoryPosition));
+        }
+    }
+
+    private List<Product> categoryProducts(String categoryId) {
+        List<Product> categoryProducts = productsByCategory.get(categoryId);
+        if (categoryProducts == null) {
+            categoryProducts = new DoublyLinkedList<>();
+            productsByCategory.put(categoryId, categoryProducts);
+        }
+        return categoryProducts;
+    }
+
+    public boolean hasProduct(Product product) {
+        return menu.get(product.getId()) != null;
     }
 
     public int numProducts() {
         return products.size();
     }
 
+    public int numProducts(Category category) {
+        List<Product> categoryProducts = productsByCategory.get(category.getId());
+        return categoryProducts != null ? categoryProducts.size() : 0;
+    }
+
     public Iterator<Product> products() {
         return products.values();
     }
 
+    /**
+     * @return products of the menu in the category, in the order they were added to it
+     */
+    public Iterator<Product> products(Category category) {
+        List<Product> categoryProducts = productsByCategory.get(category.getId());
+        return categoryProducts != null ? categoryProducts.values() : new IteratorArrayImpl<>(NO_PRODUCTS, 0, 0);
+    }
+
+    /**
+     * Position of a product in the menu and in the products of its category
+     */
+    private record MenuEntry(Position<Product> position, String categoryId, Position<Product> categoryPosition) {
+    }
 
 }
\ No newline at end of file
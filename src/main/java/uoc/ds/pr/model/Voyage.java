@@ -16,6 +16,18 @@ public class Voyage {
     public static final Comparator<Order> CMP_LEVEL = Comparator.comparingInt((Order o) -> o.getClient().getLevel().ordinal())
             .thenComparingLong(Order::getCreation);
 
+    /**
+     * Counters of the orders of a voyage
+     *
+     * @param pendingOrders orders not served yet
+     * @param servedOrders  orders already served
+     * @param totalOrders   orders made in the voyage
+     * @param revenue       sum of the prices of the orders made in the voyage
+     * @param servedRevenue sum of the prices of the orders already served
+     */
+    public record Stats(int pendingOrders, int servedOrders, int totalOrders, double revenue, double servedRevenue) {
+    }
+
     private String id;
     private Date departureDt;
     private Date arrivalDt;
@@ -30,6 +42,8 @@ public class Voyage {
     private Stack<Reservation> parking;
     private List<Order> servedOrders;
     private Queue<Order> pendingOrders;
+    private double revenue;
+    private double servedRevenue;
 
     private int availableParkingSlots;
 
@@ -241,6 +255,7 @@ public class Voyage {
 
     public void addOrder(Order order) {
         pendingOrders.add(order);
+        revenue += order.getPrice();
     }
 
     public boolean arePendingOrders() {
@@ -250,9 +265,18 @@ public class Voyage {
     public Order serveOrder() {
         Order order = pendingOrders.poll();
         servedOrders.insertEnd(order);
+        servedRevenue += order.getPrice();
         return order;
     }
 
+    public int numOrders() {
+        return pendingOrders.size() + servedOrders.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(pendingOrders.size(), servedOrders.size(), numOrders(), revenue, servedRevenue);
+    }
+
     public List<Order> getOrders() {
         List<Order> orders = new LinkedList<>();
 
@@ -263,6 +287,6 @@ public class Voyage {
     }
 
     public boolean isProductAvailable(Product product) {
-        return Utils.anyMatch(ship.products(), p -> p.equals(product));
+        return ship.hasProduct(product);
     }
 }
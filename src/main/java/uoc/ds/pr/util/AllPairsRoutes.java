@@ -0,0 +1,109 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.stream.IntStream;
+
+/**
+ * Best routes based on the distance between every pair of ports of a {@link NetworkSnapshot}.
+ * <p>
+ * Runs Dijkstra's algorithm from every port in parallel and keeps two {@code numPorts x numPorts} matrices: the kms
+ * between every pair of ports, as floats, and the position of the last route of the best route between them. A best
+ * route is rebuilt walking the matrix back from the destination, following the same routes that
+ * {@link GraphUtils#bestKmsRoute(NetworkSnapshot, Port, Port)} would return.
+ * <p>
+ * The matrices take {@link #BYTES_PER_PAIR} bytes per pair of ports (200 MB for 5000 ports), so they are limited to
+ * {@link #MAX_BYTES}, which allows networks of up to {@link #MAX_PORTS} ports.
+ */
+public class AllPairsRoutes {
+
+    public static final int BYTES_PER_PAIR = Float.BYTES + Integer.BYTES;
+    public static final long MAX_BYTES = 256L * 1024 * 1024;
+    public static final int MAX_PORTS = (int) Math.sqrt((double) MAX_BYTES / BYTES_PER_PAIR);
+
+    private final NetworkSnapshot network;
+    private final long version;
+    private final float[] distances;
+    private final int[] predecessors;
+
+    /**
+     * @param network network to be analysed
+     * @param version version of the ports network of the snapshot
+     */
+    public AllPairsRoutes(NetworkSnapshot network, long version) {
+        int numPorts = network.numPorts();
+        if (numPorts > MAX_PORTS) {
+            throw new IllegalArgumentException("All pairs routes of " + numPorts + " ports exceed "
+                    + MAX_BYTES / (1024 * 1024) + " MB. They are limited to " + MAX_PORTS + " ports");
+        }
+
+        this.network = network;
+        this.version = version;
+        this.distances = new float[numPorts * numPorts];
+        this.predecessors = new int[numPorts * numPorts];
+
+        IntStream.range(0, numPorts).parallel().forEach(src -> {
+            double[] srcDistances = new double[numPorts];
+            int[] srcPredecessors = new int[numPorts];
+            GraphUtils.shortestPaths(network, src, GraphUtils.NO_ROUTE, srcDistances, srcPredecessors);
+
+            int row = src * numPorts;
+            for (int dst = 0; dst < numPorts; dst++) {
+                distances[row + dst] = (float) srcDistances[dst];
+            }
+            System.arraycopy(srcPredecessors, 0, predecessors, row, numPorts);
+        });
+    }
+
+    public NetworkSnapshot getNetwork() {
+        return network;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return whether both ports were part of the network when the routes were calculated
+     */
+    public boolean contains(Port src, Port dst) {
+        return network.ordinal(src) >= 0 && network.ordinal(dst) >= 0;
+    }
+
+    /**
+     * @param src source port
+     * @param dst destination port
+     * @return kms of the best route between the ports. Infinity if they are not connected
+     */
+    public double distance(Port src, Port dst) {
+        return distances[network.ordinal(src) * network.numPorts() + network.ordinal(dst)];
+    }
+
+    /**
+     * @param src source port
+     * @param dst destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist. Null if any of its routes has been moved to other ports since the routes were calculated, so it is no
+     * longer a valid route
+     */
+    public List<Route> bestKmsRoute(Port src, Port dst) {
+        int row = network.ordinal(src) * network.numPorts();
+
+        List<Route> result = new LinkedList<>();
+        int route = predecessors[row + network.ordinal(dst)];
+        while (route != GraphUtils.NO_ROUTE) {
+            Route current = network.route(route);
+            if (current.getSrcPort() != network.port(network.source(route))
+                    || current.getDstPort() != network.port(network.target(route))) {
+                return null;
+            }
+            result.insertBeginning(current);
+            route = predecessors[row + network.source(route)];
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,577 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction hierarchy of a {@link NetworkSnapshot}, to answer best routes based on the distance between ports
+ * settling a few hundred ports even on networks with hundreds of thousands of routes.
+ * <p>
+ * The ports are contracted one by one, from the least to the most important. Contracting a port removes it from the
+ * remaining network and adds a shortcut between two of its neighbours when the route through it is the only best
+ * route between them (no witness route is found avoiding it). The importance of a port is the number of shortcuts its
+ * contraction adds minus the routes it removes, plus the neighbours already contracted. Importances are calculated in
+ * parallel before contracting, and updated lazily: a port is contracted only if it is still the least important one.
+ * <p>
+ * Queries run a bidirectional Dijkstra's algorithm that only moves towards more important ports: forwards from the
+ * source over the upward graph, and backwards from the destination over the downward graph. Every shortcut
+ * remembers the two routes it replaces, so the best route is unpacked into the original {@link Route} objects.
+ * <p>
+ * The hierarchy does not reflect changes made to the ports network after it is built.
+ */
+public class ContractionHierarchy {
+
+    /**
+     * Ports settled by every witness search. Stopping earlier adds unnecessary shortcuts but never loses routes
+     */
+    private static final int WITNESS_SETTLED_LIMIT = 64;
+
+    /**
+     * Idle queries kept for reuse. Queries running at the same time beyond this number are discarded when they end
+     */
+    private static final int MAX_IDLE_QUERIES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Minimum ports whose initial importance is calculated by each parallel task, which reuses one witness search for
+     * all of them. There are at most a few tasks per processor, so large networks do not allocate a witness per port
+     */
+    private static final int MIN_IMPORTANCE_TASK_PORTS = 1024;
+
+    private final NetworkSnapshot network;
+    private final int[] ranks;
+
+    // Edges are original routes or shortcuts. Shortcuts have no route and replace two consecutive edges
+    private final int[] edgeRoutes;
+    private final int[] edgeFirst;
+    private final int[] edgeSecond;
+
+    // Edges leaving every port towards a more important one
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upEdges;
+    private final double[] upKms;
+
+    // Edges arriving at every port from a more important one
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downEdges;
+    private final double[] downKms;
+
+    private final ConcurrentLinkedQueue<Query> idleQueries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numIdleQueries = new AtomicInteger();
+
+    public ContractionHierarchy(NetworkSnapshot network) {
+        this.network = network;
+        int numPorts = network.numPorts();
+
+        Contraction contraction = new Contraction(network);
+        contraction.contract();
+        this.ranks = contraction.ranks;
+
+        int numEdges = contraction.numEdges;
+        this.edgeRoutes = Arrays.copyOf(contraction.edgeRoutes, numEdges);
+        this.edgeFirst = Arrays.copyOf(contraction.edgeFirst, numEdges);
+        this.edgeSecond = Arrays.copyOf(contraction.edgeSecond, numEdges);
+
+        // Counting sort of the edges by the less important port of each one
+        upOffsets = new int[numPorts + 1];
+        downOffsets = new int[numPorts + 1];
+        for (int edge = 0; edge < numEdges; edge++) {
+            int src = contraction.edgeSources[edge];
+            int dst = contraction.edgeTargets[edge];
+            if (ranks[src] < ranks[dst]) {
+                upOffsets[src + 1]++;
+            } else {
+                downOffsets[dst + 1]++;
+            }
+        }
+        for (int i = 0; i < numPorts; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+            downOffsets[i + 1] += downOffsets[i];
+        }
+
+        upTargets = new int[upOffsets[numPorts]];
+        upEdges = new int[upOffsets[numPorts]];
+        upKms = new double[upOffsets[numPorts]];
+        downSources = new int[downOffsets[numPorts]];
+        downEdges = new int[downOffsets[numPorts]];
+        downKms = new double[downOffsets[numPorts]];
+
+        int[] upPositions = upOffsets.clone();
+        int[] downPositions = downOffsets.clone();
+        for (int edge = 0; edge < numEdges; edge++) {
+            int src = contraction.edgeSources[edge];
+            int dst = contraction.edgeTargets[edge];
+            if (ranks[src] < ranks[dst]) {
+                int position = upPositions[src]++;
+                upTargets[position] = dst;
+                upEdges[position] = edge;
+                upKms[position] = contraction.edgeKms[edge];
+            } else {
+                int position = downPositions[dst]++;
+                downSources[position] = src;
+                downEdges[position] = edge;
+                downKms[position] = contraction.edgeKms[edge];
+            }
+        }
+    }
+
+    public NetworkSnapshot getNetwork() {
+        return network;
+    }
+
+    /**
+     * @return number of shortcuts added by the contraction
+     */
+    public int numShortcuts() {
+        return edgeRoutes.length - network.numRoutes();
+    }
+
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports
+     *
+     * @param src source port
+     * @param dst destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist, the ports are the same or any of them is not part of the network
+     */
+    public List<Route> bestKmsRoute(Port src, Port dst) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+
+        List<Route> result = new LinkedList<>();
+        if (srcPort < 0 || dstPort < 0 || srcPort == dstPort) {
+            return result;
+        }
+
+        Query query = acquireQuery();
+        try {
+            int meeting = query.run(srcPort, dstPort);
+            if (meeting != GraphUtils.NO_ROUTE) {
+                for (int port = meeting; port != srcPort; port = query.forwardPorts[port]) {
+                    unpack(query.forwardEdges[port], result, true);
+                }
+                for (int port = meeting; port != dstPort; port = query.backwardPorts[port]) {
+                    unpack(query.backwardEdges[port], result, false);
+                }
+            }
+        } finally {
+            query.reset();
+            releaseQuery(query);
+        }
+
+        return result;
+    }
+
+    private Query acquireQuery() {
+        Query query = idleQueries.poll();
+        if (query == null) {
+            return new Query(network.numPorts());
+        }
+        numIdleQueries.decrementAndGet();
+        return query;
+    }
+
+    private void releaseQuery(Query query) {
+        if (numIdleQueries.incrementAndGet() <= MAX_IDLE_QUERIES) {
+            idleQueries.offer(query);
+        } else {
+            numIdleQueries.decrementAndGet();
+        }
+    }
+
+    /**
+     * Adds the original routes of an edge to the route
+     *
+     * @param edge      edge to unpack
+     * @param result    route being built
+     * @param beginning whether the routes go before the routes already added, or after them
+     */
+    private void unpack(int edge, List<Route> result, boolean beginning) {
+        if (edgeRoutes[edge] != GraphUtils.NO_ROUTE) {
+            Route route = network.route(edgeRoutes[edge]);
+            if (beginning) {
+                result.insertBeginning(route);
+            } else {
+                result.insertEnd(route);
+            }
+        } else if (beginning) {
+            unpack(edgeSecond[edge], result, true);
+            unpack(edgeFirst[edge], result, true);
+        } else {
+            unpack(edgeFirst[edge], result, false);
+            unpack(edgeSecond[edge], result, false);
+        }
+    }
+
+    /**
+     * Arrays of a bidirectional search, taken from the idle queries of the hierarchy and returned after every query.
+     * Only the ports touched by the last query are reset.
+     */
+    private class Query {
+        private final double[] forward;
+        private final double[] backward;
+        private final int[] forwardEdges;
+        private final int[] forwardPorts;
+        private final int[] backwardEdges;
+        private final int[] backwardPorts;
+        private final int[] touched;
+        private int numTouched;
+        private final IndexedMinHeap forwardPending;
+        private final IndexedMinHeap backwardPending;
+
+        Query(int numPorts) {
+            forward = new double[numPorts];
+            backward = new double[numPorts];
+            forwardEdges = new int[numPorts];
+            forwardPorts = new int[numPorts];
+            backwardEdges = new int[numPorts];
+            backwardPorts = new int[numPorts];
+            touched = new int[2 * numPorts];
+            forwardPending = new IndexedMinHeap(numPorts);
+            backwardPending = new IndexedMinHeap(numPorts);
+            Arrays.fill(forward, Double.POSITIVE_INFINITY);
+            Arrays.fill(backward, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * @return port where the best route goes from the upward to the downward graph. -1 if there is no route
+         */
+        int run(int srcPort, int dstPort) {
+            forward[srcPort] = 0;
+            backward[dstPort] = 0;
+            touched[numTouched++] = srcPort;
+            touched[numTouched++] = dstPort;
+            forwardPending.insert(srcPort, 0);
+            backwardPending.insert(dstPort, 0);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = GraphUtils.NO_ROUTE;
+
+            while (true) {
+                boolean forwardActive = !forwardPending.isEmpty()
+                        && forwardPending.key(forwardPending.peek()) < best;
+                boolean backwardActive = !backwardPending.isEmpty()
+                        && backwardPending.key(backwardPending.peek()) < best;
+                if (!forwardActive && !backwardActive) {
+                    return meeting;
+                }
+
+                if (forwardActive && (!backwardActive
+                        || forwardPending.key(forwardPending.peek()) <= backwardPending.key(backwardPending.peek()))) {
+                    int current = forwardPending.deleteMin();
+                    if (forward[current] + backward[current] < best) {
+                        best = forward[current] + backward[current];
+                        meeting = current;
+                    }
+                    for (int i = upOffsets[current]; i < upOffsets[current + 1]; i++) {
+                        int next = upTargets[i];
+                        double distance = forward[current] + upKms[i];
+                        if (distance < forward[next]) {
+                            if (forward[next] == Double.POSITIVE_INFINITY) {
+                                touched[numTouched++] = next;
+                            }
+                            forward[next] = distance;
+                            forwardEdges[next] = upEdges[i];
+                            forwardPorts[next] = current;
+                            forwardPending.insertOrDecrease(next, distance);
+                        }
+                    }
+                } else {
+                    int current = backwardPending.deleteMin();
+                    if (forward[current] + backward[current] < best) {
+                        best = forward[current] + backward[current];
+                        meeting = current;
+                    }
+                    for (int i = downOffsets[current]; i < downOffsets[current + 1]; i++) {
+                        int previous = downSources[i];
+                        double distance = backward[current] + downKms[i];
+                        if (distance < backward[previous]) {
+                            if (backward[previous] == Double.POSITIVE_INFINITY) {
+                                touched[numTouched++] = previous;
+                            }
+                            backward[previous] = distance;
+                            backwardEdges[previous] = downEdges[i];
+                            backwardPorts[previous] = current;
+                            backwardPending.insertOrDecrease(previous, distance);
+                        }
+                    }
+                }
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                forward[touched[i]] = Double.POSITIVE_INFINITY;
+                backward[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            numTouched = 0;
+            forwardPending.clear();
+            backwardPending.clear();
+        }
+    }
+
+    /**
+     * Network being contracted: the original routes plus the shortcuts added, with the edges leaving and arriving at
+     * every port
+     */
+    private static class Contraction {
+        private final int numPorts;
+        private final int[] ranks;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+
+        private int numEdges;
+        private int[] edgeSources;
+        private int[] edgeTargets;
+        private double[] edgeKms;
+        private int[] edgeRoutes;
+        private int[] edgeFirst;
+        private int[] edgeSecond;
+
+        private final int[][] outgoing;
+        private final int[] numOutgoing;
+        private final int[][] incoming;
+        private final int[] numIncoming;
+
+        Contraction(NetworkSnapshot network) {
+            numPorts = network.numPorts();
+            ranks = new int[numPorts];
+            contracted = new boolean[numPorts];
+            contractedNeighbours = new int[numPorts];
+
+            int capacity = Math.max(16, 2 * network.numRoutes());
+            edgeSources = new int[capacity];
+            edgeTargets = new int[capacity];
+            edgeKms = new double[capacity];
+            edgeRoutes = new int[capacity];
+            edgeFirst = new int[capacity];
+            edgeSecond = new int[capacity];
+
+            outgoing = new int[numPorts][];
+            numOutgoing = new int[numPorts];
+            incoming = new int[numPorts][];
+            numIncoming = new int[numPorts];
+            for (int port = 0; port < numPorts; port++) {
+                outgoing[port] = new int[Math.max(2, network.lastRoute(port) - network.firstRoute(port))];
+                incoming[port] = new int[Math.max(2, network.lastIncoming(port) - network.firstIncoming(port))];
+            }
+
+            for (int route = 0; route < network.numRoutes(); route++) {
+                addEdge(network.source(route), network.target(route), network.kms(route), route,
+                        GraphUtils.NO_ROUTE, GraphUtils.NO_ROUTE);
+            }
+        }
+
+        void contract() {
+            int[] initial = new int[numPorts];
+            int taskPorts = Math.max(MIN_IMPORTANCE_TASK_PORTS,
+                    numPorts / (4 * Runtime.getRuntime().availableProcessors()) + 1);
+            int numTasks = (numPorts + taskPorts - 1) / taskPorts;
+            IntStream.range(0, numTasks).parallel().forEach(task -> {
+                Witness taskWitness = new Witness(numPorts);
+                int last = Math.min(numPorts, (task + 1) * taskPorts);
+                for (int port = task * taskPorts; port < last; port++) {
+                    initial[port] = importance(port, shortcuts(port, taskWitness));
+                }
+            });
+
+            IndexedMinHeap pending = new IndexedMinHeap(numPorts);
+            for (int port = 0; port < numPorts; port++) {
+                pending.insert(port, initial[port]);
+            }
+
+            Witness witness = new Witness(numPorts);
+            int rank = 0;
+            while (!pending.isEmpty()) {
+                int port = pending.deleteMin();
+                Shortcuts shortcuts = shortcuts(port, witness);
+                int importance = importance(port, shortcuts);
+                if (!pending.isEmpty() && importance > pending.key(pending.peek())) {
+                    pending.insert(port, importance);
+                    continue;
+                }
+
+                for (int i = 0; i < shortcuts.size; i++) {
+                    int first = shortcuts.first[i];
+                    int second = shortcuts.second[i];
+                    addEdge(edgeSources[first], edgeTargets[second], edgeKms[first] + edgeKms[second],
+                            GraphUtils.NO_ROUTE, first, second);
+                }
+                contracted[port] = true;
+                ranks[port] = rank++;
+
+                for (int i = 0; i < numOutgoing[port]; i++) {
+                    contractedNeighbours[edgeTargets[outgoing[port][i]]]++;
+                }
+                for (int i = 0; i < numIncoming[port]; i++) {
+                    contractedNeighbours[edgeSources[incoming[port][i]]]++;
+                }
+            }
+        }
+
+        /**
+         * @return shortcuts added by the contraction minus edges removed by it, plus neighbours already contracted
+         */
+        private int importance(int port, Shortcuts shortcuts) {
+            int removed = 0;
+            for (int i = 0; i < numOutgoing[port]; i++) {
+                removed += contracted[edgeTargets[outgoing[port][i]]] ? 0 : 1;
+            }
+            for (int i = 0; i < numIncoming[port]; i++) {
+                removed += contracted[edgeSources[incoming[port][i]]] ? 0 : 1;
+            }
+            return shortcuts.size - removed + contractedNeighbours[port];
+        }
+
+        /**
+         * Finds the pairs of edges through the port that need a shortcut when it is contracted
+         */
+        private Shortcuts shortcuts(int port, Witness witness) {
+            Shortcuts result = new Shortcuts();
+            for (int i = 0; i < numIncoming[port]; i++) {
+                int first = incoming[port][i];
+                int src = edgeSources[first];
+                if (contracted[src]) {
+                    continue;
+                }
+
+                double maxKms = -1;
+                for (int j = 0; j < numOutgoing[port]; j++) {
+                    int second = outgoing[port][j];
+                    int dst = edgeTargets[second];
+                    if (!contracted[dst] && dst != src) {
+                        maxKms = Math.max(maxKms, edgeKms[first] + edgeKms[second]);
+                    }
+                }
+                if (maxKms < 0) {
+                    continue;
+                }
+
+                witness.run(this, src, port, maxKms);
+                for (int j = 0; j < numOutgoing[port]; j++) {
+                    int second = outgoing[port][j];
+                    int dst = edgeTargets[second];
+                    if (!contracted[dst] && dst != src && witness.distance(dst) > edgeKms[first] + edgeKms[second]) {
+                        result.add(first, second);
+                    }
+                }
+                witness.reset();
+            }
+            return result;
+        }
+
+        private void addEdge(int src, int dst, double kms, int route, int first, int second) {
+            if (numEdges == edgeSources.length) {
+                int capacity = 2 * numEdges;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeKms = Arrays.copyOf(edgeKms, capacity);
+                edgeRoutes = Arrays.copyOf(edgeRoutes, capacity);
+                edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+                edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+            }
+            int edge = numEdges++;
+            edgeSources[edge] = src;
+            edgeTargets[edge] = dst;
+            edgeKms[edge] = kms;
+            edgeRoutes[edge] = route;
+            edgeFirst[edge] = first;
+            edgeSecond[edge] = second;
+
+            if (numOutgoing[src] == outgoing[src].length) {
+                outgoing[src] = Arrays.copyOf(outgoing[src], 2 * numOutgoing[src]);
+            }
+            outgoing[src][numOutgoing[src]++] = edge;
+            if (numIncoming[dst] == incoming[dst].length) {
+                incoming[dst] = Arrays.copyOf(incoming[dst], 2 * numIncoming[dst]);
+            }
+            incoming[dst][numIncoming[dst]++] = edge;
+        }
+    }
+
+    /**
+     * Pairs of consecutive edges that need a shortcut
+     */
+    private static class Shortcuts {
+        private int[] first = new int[4];
+        private int[] second = new int[4];
+        private int size;
+
+        void add(int firstEdge, int secondEdge) {
+            if (size == first.length) {
+                first = Arrays.copyOf(first, 2 * size);
+                second = Arrays.copyOf(second, 2 * size);
+            }
+            first[size] = firstEdge;
+            second[size] = secondEdge;
+            size++;
+        }
+    }
+
+    /**
+     * Dijkstra's algorithm over the ports not contracted yet, avoiding the port being contracted, limited by kms and
+     * by number of ports settled. Its arrays are reused and only the ports touched by the last search are reset.
+     */
+    private static class Witness {
+        private final double[] distances;
+        private final int[] touched;
+        private int numTouched;
+        private final IndexedMinHeap pending;
+
+        Witness(int numPorts) {
+            distances = new double[numPorts];
+            touched = new int[numPorts];
+            pending = new IndexedMinHeap(numPorts);
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        }
+
+        void run(Contraction contraction, int src, int avoided, double maxKms) {
+            distances[src] = 0;
+            touched[numTouched++] = src;
+            pending.insert(src, 0);
+
+            int settled = 0;
+            while (!pending.isEmpty() && pending.key(pending.peek()) <= maxKms && settled < WITNESS_SETTLED_LIMIT) {
+                int current = pending.deleteMin();
+                settled++;
+
+                int[] edges = contraction.outgoing[current];
+                for (int i = 0; i < contraction.numOutgoing[current]; i++) {
+                    int edge = edges[i];
+                    int next = contraction.edgeTargets[edge];
+                    if (next == avoided || contraction.contracted[next]) {
+                        continue;
+                    }
+                    double distance = distances[current] + contraction.edgeKms[edge];
+                    if (distance < distances[next]) {
+                        if (distances[next] == Double.POSITIVE_INFINITY) {
+                            touched[numTouched++] = next;
+                        }
+                        distances[next] = distance;
+                        pending.insertOrDecrease(next, distance);
+                    }
+                }
+            }
+        }
+
+        double distance(int port) {
+            return distances[port];
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                distances[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            numTouched = 0;
+            pending.clear();
+        }
+    }
+}
@@ -5,36 +5,89 @@ import edu.uoc.ds.exceptions.InvalidPositionException;
 import edu.uoc.ds.traversal.Iterator;
 import edu.uoc.ds.traversal.IteratorArrayImpl;
 
+import java.util.Arrays;
+
+/**
+ * Growable array of elements identified by a key, in insertion order until an element is deleted.
+ * <p>
+ * The elements are kept contiguously in a compact array, which is iterated directly and doubles its size when it is
+ * full. An open addressing hash index with linear probing maps every key to its position in the array, so lookups
+ * are O(1) on average instead of scanning the array. The index holds positions as primitive ints, and it is rebuilt
+ * with twice the slots when it is half full. The hash of every key is kept next to its element, so probing compares
+ * keys only when their hashes match. Deleting an element moves the last one into its position and shifts
+ * back the keys probed after it in the index, so both stay compact.
+ */
 public class DSArray<E> {
+    private static final int EMPTY = -1;
+
     KeyValue<String, E>[] theArray;
     int num;
+    private int[] hashes;
+    private int[] index;
 
     public DSArray(int len) {
-        theArray = new KeyValue[len];
+        theArray = newArray(Math.max(1, len));
+        hashes = new int[theArray.length];
+        index = newIndex(Integer.highestOneBit(Math.max(1, len)) << 2);
     }
 
     public E get(String id)  {
-
-        for (KeyValue<String, E> kv : theArray) {
-            if (kv == null) {
-                return null;
-            } else if (kv.getKey().equals(id)){
-                return kv.getValue();
-            }
-        }
-        return null;
+        int position = index[slot(id)];
+        return position == EMPTY ? null : theArray[position].getValue();
     }
 
+    /**
+     * Adds an element with a key. If the key is already in the array, its element is replaced in place
+     */
     public void put(String id, E elem) {
-        theArray[num++] = new KeyValue<>(id, elem);
+        int slot = slot(id);
+        if (index[slot] != EMPTY) {
+            theArray[index[slot]].setValue(elem);
+            return;
+        }
+
+        if (num == theArray.length) {
+            theArray = Arrays.copyOf(theArray, 2 * num);
+            hashes = Arrays.copyOf(hashes, 2 * num);
+        }
+        theArray[num] = new KeyValue<>(id, elem);
+        hashes[num] = hash(id);
+        index[slot] = num++;
+
+        if (2 * num > index.length) {
+            rehash(2 * index.length);
+        }
     }
 
     public void update(String id, E elem) {
-        for (KeyValue<String, E> kv : theArray) {
-            if (kv!=null && kv.getKey().equals(id)){
-                kv.setValue(elem);
-            }
+        int position = index[slot(id)];
+        if (position != EMPTY) {
+            theArray[position].setValue(elem);
+        }
+    }
+
+    /**
+     * Deletes the element with the key. The last element takes its position
+     *
+     * @return the deleted element. Null if the key is not in the array
+     */
+    public E delete(String id) {
+        int slot = slot(id);
+        int position = index[slot];
+        if (position == EMPTY) {
+            return null;
+        }
+        E result = theArray[position].getValue();
+        deleteSlot(slot);
+
+        int last = --num;
+        if (position != last) {
+            theArray[position] = theArray[last];
+            hashes[position] = hashes[last];
+            index[slot(theArray[position].getKey())] = position;
         }
+        theArray[last] = null;
+        return result;
     }
 
     public Iterator<E> values() {
@@ -56,4 +109,58 @@ public class DSArray<E> {
     public int size() {
         return num;
     }
+
+    /**
+     * @return slot of the index holding the key, or the empty slot where it would be added
+     */
+    private int slot(String id) {
+        int mask = index.length - 1;
+        int hash = hash(id);
+        int slot = hash & mask;
+        while (index[slot] != EMPTY
+                && (hashes[index[slot]] != hash || !theArray[index[slot]].getKey().equals(id))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Empties a slot of the index, moving back into it the next keys of the probe sequence that would not be found
+     * past an empty slot
+     */
+    private void deleteSlot(int slot) {
+        int mask = index.length - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; index[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hashes[index[next]] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+        }
+        index[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        index = newIndex(capacity);
+        for (int position = 0; position < num; position++) {
+            index[slot(theArray[position].getKey())] = position;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> KeyValue<String, E>[] newArray(int length) {
+        return new KeyValue[length];
+    }
+
+    private static int[] newIndex(int capacity) {
+        int[] result = new int[capacity];
+        Arrays.fill(result, EMPTY);
+        return result;
+    }
 }
@@ -1,22 +1,17 @@
 package uoc.ds.pr.util;
 
-import edu.uoc.ds.adt.helpers.KeyValue;
-import edu.uoc.ds.adt.nonlinear.graphs.DirectedEdge;
 import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
-import edu.uoc.ds.adt.nonlinear.graphs.Edge;
-import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
 import edu.uoc.ds.adt.sequential.LinkedList;
 import edu.uoc.ds.adt.sequential.List;
-import edu.uoc.ds.adt.sequential.Set;
-import edu.uoc.ds.adt.sequential.SetLinkedListImpl;
-import edu.uoc.ds.algorithms.MinimumPaths;
-import edu.uoc.ds.traversal.Iterator;
 import uoc.ds.pr.model.Port;
 import uoc.ds.pr.model.Route;
 
+import java.util.Arrays;
+import java.util.BitSet;
+
 public final class GraphUtils {
 
-    private static final MinimumPaths<Port, Route> MIN_PATH_ALGORITHM = new MinimumPaths<>();
+    static final int NO_ROUTE = -1;
 
     private GraphUtils() {
         throw new UnsupportedOperationException("This is a utility class and must not be initialized");
@@ -24,226 +19,456 @@ public final class GraphUtils {
 
     /**
      * Checks if a route exist between two ports.
+     * Builds a {@link NetworkSnapshot} of the graph and runs {@link #existConnection(NetworkSnapshot, Port, Port)}.
      *
      * @param graph to be  analysed
      * @param src   source port
      * @param dst   destination port
      * @return boolean indicating whether a route exists or not
      */
-    public static <E, L> boolean existConnection(DirectedGraph<E, L> graph, E src, E dst) {
-        Vertex<E> srcVertex = graph.getVertex(src);
-        Vertex<E> dstVertex = graph.getVertex(dst);
-
-        List<Vertex<E>> pending = new LinkedList<>();
-        pending.insertEnd(srcVertex);
-
-        return existConnection(graph, dstVertex, pending, new SetLinkedListImpl<>());
+    public static boolean existConnection(DirectedGraph<Port, Route> graph, Port src, Port dst) {
+        return existConnection(new NetworkSnapshot(graph), src, dst);
     }
 
-
     /**
-     * Recursive method that tries to find a path between source and destination vertexes.
+     * Checks if a route exist between two ports.
+     * Runs an iterative breadth-first search, using an array as queue and a bitset of visited ports, so the cost is
+     * O(V+E).
      *
-     * @param graph   graph to be analysed
-     * @param dst     destination vertex
-     * @param pending queue of vertexes that are pending to be analysed
-     * @param visited collection of visited vertexes
-     * @return boolean indicating whether the path exists or not
+     * @param network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return boolean indicating whether a route exists or not
      */
-    private static <E, L> boolean existConnection(DirectedGraph<E, L> graph, Vertex<E> dst,
-                                                  List<Vertex<E>> pending, Set<Vertex<E>> visited) {
-        if (pending.isEmpty()) {
-            return false;
-        }
+    public static boolean existConnection(NetworkSnapshot network, Port src, Port dst) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
 
-        if (Utils.contains(pending, dst)) {
+        if (srcPort == dstPort) {
             return true;
         }
 
-        Vertex<E> src = pending.deleteFirst();
-        pending.insertAll(edgeIteratorToVertexList(graph.edgesWithSource(src)));
-        Utils.removeAll(pending, visited);
-        visited.add(src);
+        // Every port is queued once at most
+        int[] queue = new int[network.numPorts()];
+        int head = 0;
+        int tail = 0;
+        BitSet visited = new BitSet(network.numPorts());
+
+        queue[tail++] = srcPort;
+        visited.set(srcPort);
+
+        while (head < tail) {
+            int current = queue[head++];
+            for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                int next = network.target(route);
+                if (next == dstPort) {
+                    return true;
+                }
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
 
-        return existConnection(graph, dst, pending, visited);
+        return false;
     }
 
     /**
-     * Calculates and returns a list with the best route based on the number of ports
+     * Calculates and returns a list with the best route based on the number of ports.
+     * Builds a {@link NetworkSnapshot} of the graph and runs {@link #bestPortRoute(NetworkSnapshot, Port, Port)}.
      *
      * @param graph to be analysed
      * @param src   source port
      * @param dst   destination port
-     * @return list containing the best route based on the number of ports
+     * @return list containing the best route based on the number of ports. Empty list if the route does not exist
      */
     public static List<Route> bestPortRoute(DirectedGraph<Port, Route> graph, Port src, Port dst) {
-        Vertex<Port> srcVertex = graph.getVertex(src);
-        Vertex<Port> dstVertex = graph.getVertex(dst);
-
-        List<DirectedEdge<Route, Port>> pending = new LinkedList<>();
-        pending.insertAll(edgeIteratorToDirectedEdgeList(graph.edgesWithSource(srcVertex)));
-
-        return bestPortRoute(graph, dstVertex, pending);
+        return bestPortRoute(new NetworkSnapshot(graph), src, dst);
     }
 
     /**
-     * Recursive method that runs through the pending edges, expanding their destination vertex and trying to find
-     * the best route based on the number of vertexes contained
+     * Calculates and returns a list with the best route based on the number of ports.
+     * Runs a breadth-first search that records the route used to reach every port, so the result is rebuilt once
+     * from the destination and the cost is O(V+E).
      *
-     * @param graph   graph to be analysed
-     * @param dst     destination vertex
-     * @param pending pending edges to be expanded
-     * @return a list containing the best route to arrive to the destination based on the number of ports. Empty list if
-     * the route does not exist
+     * @param network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return list containing the best route based on the number of ports. Empty list if the route does not exist
      */
-    private static List<Route> bestPortRoute(DirectedGraph<Port, Route> graph, Vertex<Port> dst,
-                                             List<DirectedEdge<Route, Port>> pending) {
+    public static List<Route> bestPortRoute(NetworkSnapshot network, Port src, Port dst) {
+        int dstPort = network.ordinal(dst);
 
-        if (pending.isEmpty()) {
-            return new LinkedList<>();
-        }
+        int[] predecessors = new int[network.numPorts()];
+        fewestPorts(network, network.ordinal(src), dstPort, predecessors);
 
-        List<Route> bestRoute = new LinkedList<>();
+        return buildRoute(network, predecessors, dstPort);
+    }
 
-        var it = pending.values();
-        while (it.hasNext()) {
-            var edge = it.next();
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports.
+     * Builds a {@link NetworkSnapshot} of the graph and runs {@link #bestKmsRoute(NetworkSnapshot, Port, Port)}.
+     *
+     * @param graph to be analysed
+     * @param src   source port
+     * @param dst   destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
+     */
+    public static List<Route> bestKmsRoute(DirectedGraph<Port, Route> graph, Port src, Port dst) {
+        return bestKmsRoute(new NetworkSnapshot(graph), src, dst);
+    }
 
-            var dstVertex = edge.getVertexDst();
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports.
+     * Runs Dijkstra's algorithm over the kms of the routes with an {@link IndexedMinHeap}, recording the route used
+     * to reach every port. The search stops as soon as the destination is settled, so the cost is O((V+E) log V) at
+     * most.
+     *
+     * @param network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
+     */
+    public static List<Route> bestKmsRoute(NetworkSnapshot network, Port src, Port dst) {
+        int dstPort = network.ordinal(dst);
 
-            if (dst.equals(dstVertex)) {
-                List<Route> result = new LinkedList<>();
-                result.insertEnd(edge.getLabel());
-                return result;
-            }
+        int[] predecessors = new int[network.numPorts()];
+        shortestPaths(network, network.ordinal(src), dstPort, new double[network.numPorts()], predecessors);
 
-            List<DirectedEdge<Route, Port>> newPending = new LinkedList<>();
-            newPending.insertAll(edgeIteratorToDirectedEdgeList(graph.edgesWithSource(dstVertex)));
+        return buildRoute(network, predecessors, dstPort);
+    }
 
-            final List<Route> finalBestRoute = bestRoute; // Needed to execute the removeIf function
-            Utils.removeIf(newPending, e -> Utils.contains(finalBestRoute, e.getLabel()));
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports.
+     * Builds a {@link NetworkSnapshot} of the graph and runs {@link #bestKmsRouteAStar(NetworkSnapshot, Port, Port)}.
+     *
+     * @param graph to be analysed
+     * @param src   source port
+     * @param dst   destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
+     */
+    public static List<Route> bestKmsRouteAStar(DirectedGraph<Port, Route> graph, Port src, Port dst) {
+        return bestKmsRouteAStar(new NetworkSnapshot(graph), src, dst);
+    }
 
-            List<Route> result = bestPortRoute(graph, dst, newPending);
-            if (!result.isEmpty()) {
-                result.insertBeginning(edge.getLabel());
-                if (bestRoute.isEmpty() || result.size() < bestRoute.size()) {
-                    bestRoute = result;
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports.
+     * Runs an A* search, which settles the ports by their kms from the source plus
+     * {@link NetworkSnapshot#minKms(int, int)} to the destination, so the ports in the direction of the destination
+     * are settled first. When the ports have no coordinates, it settles the same ports as
+     * {@link #bestKmsRoute(NetworkSnapshot, Port, Port)}.
+     *
+     * @param network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
+     */
+    public static List<Route> bestKmsRouteAStar(NetworkSnapshot network, Port src, Port dst) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+
+        double[] distances = new double[network.numPorts()];
+        int[] predecessors = newPredecessors(network);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        BitSet settled = new BitSet(network.numPorts());
+        IndexedMinHeap pending = new IndexedMinHeap(network.numPorts());
+
+        distances[srcPort] = 0;
+        pending.insert(srcPort, network.minKms(srcPort, dstPort));
+
+        while (!pending.isEmpty()) {
+            int current = pending.deleteMin();
+            if (current == dstPort) {
+                break;
+            }
+            settled.set(current);
+
+            for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                int next = network.target(route);
+                double distance = distances[current] + network.kms(route);
+                if (!settled.get(next) && distance < distances[next]) {
+                    distances[next] = distance;
+                    predecessors[next] = route;
+                    pending.insertOrDecrease(next, distance + network.minKms(next, dstPort));
                 }
             }
         }
 
-        return bestRoute;
+        return buildRoute(network, predecessors, dstPort);
     }
 
     /**
      * Calculates and returns a list with the best route based on the distance between ports.
-     * Uses {@link edu.uoc.ds.algorithms.MinimumPaths} algorithm to calculate the best paths in distance.
+     * Builds a {@link NetworkSnapshot} of the graph and runs
+     * {@link #bestKmsRouteBidirectional(NetworkSnapshot, Port, Port)}.
      *
      * @param graph to be analysed
      * @param src   source port
      * @param dst   destination port
-     * @return a list containing the best route based on the distance between ports
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
      */
-    public static List<Route> bestKmsRoute(DirectedGraph<Port, Route> graph, Port src, Port dst) {
-        Vertex<Port> srcVertex = graph.getVertex(src);
-        Vertex<Port> dstVertex = graph.getVertex(dst);
+    public static List<Route> bestKmsRouteBidirectional(DirectedGraph<Port, Route> graph, Port src, Port dst) {
+        return bestKmsRouteBidirectional(new NetworkSnapshot(graph), src, dst);
+    }
 
-        var minPaths = MIN_PATH_ALGORITHM.calculate(graph, srcVertex);
-        if (!isConnected(minPaths, dstVertex)) {
-            return new LinkedList<>();
+    /**
+     * Calculates and returns a list with the best route based on the distance between ports.
+     * Runs Dijkstra's algorithm forwards from the source, over the routes leaving every port, and backwards from the
+     * destination, over the routes arriving at every port, always advancing the search with fewer pending ports.
+     * Every route relaxed towards a port reached by the other search is a candidate, and both searches stop when the
+     * nearest pending ports of both add up to the best candidate. On sparse networks, both searches together settle
+     * fewer ports than a single search reaching the destination.
+     *
+     * @param network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return a list containing the best route based on the distance between ports. Empty list if the route does not
+     * exist
+     */
+    public static List<Route> bestKmsRouteBidirectional(NetworkSnapshot network, Port src, Port dst) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+        int numPorts = network.numPorts();
+
+        double[] forward = new double[numPorts];
+        double[] backward = new double[numPorts];
+        Arrays.fill(forward, Double.POSITIVE_INFINITY);
+        Arrays.fill(backward, Double.POSITIVE_INFINITY);
+        // Route used to reach every port from the source, and route taken from every port towards the destination
+        int[] predecessors = newPredecessors(network);
+        int[] successors = newPredecessors(network);
+        BitSet forwardSettled = new BitSet(numPorts);
+        BitSet backwardSettled = new BitSet(numPorts);
+        IndexedMinHeap forwardPending = new IndexedMinHeap(numPorts);
+        IndexedMinHeap backwardPending = new IndexedMinHeap(numPorts);
+
+        forward[srcPort] = 0;
+        backward[dstPort] = 0;
+        forwardPending.insert(srcPort, 0);
+        backwardPending.insert(dstPort, 0);
+
+        double best = srcPort == dstPort ? 0 : Double.POSITIVE_INFINITY;
+        int meeting = srcPort;
+
+        while (!forwardPending.isEmpty() && !backwardPending.isEmpty()
+                && forwardPending.key(forwardPending.peek()) + backwardPending.key(backwardPending.peek()) < best) {
+
+            if (forwardPending.size() <= backwardPending.size()) {
+                int current = forwardPending.deleteMin();
+                forwardSettled.set(current);
+                for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                    int next = network.target(route);
+                    double distance = forward[current] + network.kms(route);
+                    if (!forwardSettled.get(next) && distance < forward[next]) {
+                        forward[next] = distance;
+                        predecessors[next] = route;
+                        forwardPending.insertOrDecrease(next, distance);
+                    }
+                    if (forward[next] + backward[next] < best) {
+                        best = forward[next] + backward[next];
+                        meeting = next;
+                    }
+                }
+            } else {
+                int current = backwardPending.deleteMin();
+                backwardSettled.set(current);
+                for (int i = network.firstIncoming(current); i < network.lastIncoming(current); i++) {
+                    int route = network.incoming(i);
+                    int previous = network.source(route);
+                    double distance = backward[current] + network.kms(route);
+                    if (!backwardSettled.get(previous) && distance < backward[previous]) {
+                        backward[previous] = distance;
+                        successors[previous] = route;
+                        backwardPending.insertOrDecrease(previous, distance);
+                    }
+                    if (forward[previous] + backward[previous] < best) {
+                        best = forward[previous] + backward[previous];
+                        meeting = previous;
+                    }
+                }
+            }
         }
 
-        List<Route> bestPath = new LinkedList<>();
+        if (best == Double.POSITIVE_INFINITY) {
+            return new LinkedList<>();
+        }
 
-        boolean sourceFound;
-        do {
-            KeyValue<Vertex<Port>, Number> bestEntry = null;
-            DirectedEdge<Route, Port> bestEdge = null;
+        List<Route> result = buildRoute(network, predecessors, meeting);
+        for (int route = successors[meeting]; route != NO_ROUTE; route = successors[network.target(route)]) {
+            result.insertEnd(network.route(route));
+        }
+        return result;
+    }
 
-            var it = graph.edgedWithDestination(dstVertex);
-            while (it.hasNext()) {
-                var edge = (DirectedEdge<Route, Port>) it.next();
+    /**
+     * Runs Dijkstra's algorithm over the kms of the routes with an {@link IndexedMinHeap}, from a source port
+     *
+     * @param network      network to be analysed
+     * @param srcPort      ordinal of the source port
+     * @param dstPort      ordinal of the destination port. The search stops when it is settled. -1 to reach every
+     *                     port
+     * @param distances    array filled with the kms from the source to every port. Infinity for unreachable ports
+     * @param predecessors array filled with the position of the route used to reach every port. {@link #NO_ROUTE}
+     *                     for the source and for unreachable ports
+     */
+    static void shortestPaths(NetworkSnapshot network, int srcPort, int dstPort, double[] distances,
+                              int[] predecessors) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, NO_ROUTE);
+        BitSet settled = new BitSet(network.numPorts());
+        IndexedMinHeap pending = new IndexedMinHeap(network.numPorts());
+
+        distances[srcPort] = 0;
+        pending.insert(srcPort, 0);
+
+        while (!pending.isEmpty()) {
+            int current = pending.deleteMin();
+            settled.set(current);
+            if (current == dstPort) {
+                break;
+            }
 
-                KeyValue<Vertex<Port>, Number> edgeEntry = getEntry(minPaths, edge.getVertexSrc());
-                if (bestEntry == null || bestEntry.getValue().doubleValue() > edgeEntry.getValue().doubleValue()) {
-                    bestEntry = edgeEntry;
-                    bestEdge = edge;
+            for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                int next = network.target(route);
+                double distance = distances[current] + network.kms(route);
+                if (!settled.get(next) && distance < distances[next]) {
+                    distances[next] = distance;
+                    predecessors[next] = route;
+                    pending.insertOrDecrease(next, distance);
                 }
             }
-
-            bestPath.insertBeginning(bestEdge.getLabel());
-            dstVertex = bestEntry.getKey();
-
-            sourceFound = bestEntry.getKey().equals(srcVertex);
-
-        } while (!sourceFound);
-
-        return bestPath;
+        }
     }
 
     /**
-     * Converts and edge iterator into a list of destination vectors
+     * Runs a breadth-first search from a source port
      *
-     * @param it edge iterator
-     * @return list of destination vectors
+     * @param network      network to be analysed
+     * @param srcPort      ordinal of the source port
+     * @param dstPort      ordinal of the destination port. The search stops when it is reached. -1 to reach every
+     *                     port
+     * @param predecessors array filled with the position of the route used to reach every port with the fewest
+     *                     routes. {@link #NO_ROUTE} for the source and for unreachable ports
      */
-    private static <E, L> List<Vertex<E>> edgeIteratorToVertexList(Iterator<Edge<L, E>> it) {
-        List<Vertex<E>> result = new LinkedList<>();
-
-        while (it.hasNext()) {
-            var e = (DirectedEdge<L, E>) it.next();
-            result.insertEnd(e.getVertexDst());
+    static void fewestPorts(NetworkSnapshot network, int srcPort, int dstPort, int[] predecessors) {
+        Arrays.fill(predecessors, NO_ROUTE);
+        int[] queue = new int[network.numPorts()];
+        int head = 0;
+        int tail = 0;
+        BitSet visited = new BitSet(network.numPorts());
+
+        queue[tail++] = srcPort;
+        visited.set(srcPort);
+
+        while (head < tail && (dstPort < 0 || !visited.get(dstPort))) {
+            int current = queue[head++];
+            for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                int next = network.target(route);
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    predecessors[next] = route;
+                    queue[tail++] = next;
+                }
+            }
         }
-
-        return result;
     }
 
-
     /**
-     * Converts and edge iterator into a set of edges
+     * Runs Dijkstra's algorithm backwards from a destination port, over the routes arriving at every port
      *
-     * @param it edge iterator
-     * @return set of edges
+     * @param network network to be analysed
+     * @param dstPort ordinal of the destination port
+     * @return kms from every port to the destination. Infinity for ports that do not reach it
      */
-    private static <E, L> List<DirectedEdge<L, E>> edgeIteratorToDirectedEdgeList(Iterator<Edge<L, E>> it) {
-        List<DirectedEdge<L, E>> result = new LinkedList<>();
-
-        while (it.hasNext()) {
-            result.insertEnd((DirectedEdge<L, E>) it.next());
+    static double[] distancesTo(NetworkSnapshot network, int dstPort) {
+        double[] distances = new double[network.numPorts()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        BitSet settled = new BitSet(network.numPorts());
+        IndexedMinHeap pending = new IndexedMinHeap(network.numPorts());
+
+        distances[dstPort] = 0;
+        pending.insert(dstPort, 0);
+
+        while (!pending.isEmpty()) {
+            int current = pending.deleteMin();
+            settled.set(current);
+
+            for (int i = network.firstIncoming(current); i < network.lastIncoming(current); i++) {
+                int route = network.incoming(i);
+                int previous = network.source(route);
+                double distance = distances[current] + network.kms(route);
+                if (!settled.get(previous) && distance < distances[previous]) {
+                    distances[previous] = distance;
+                    pending.insertOrDecrease(previous, distance);
+                }
+            }
         }
 
-        return result;
+        return distances;
     }
 
     /**
-     * Checks if a vertex is accessible in the KeyValues array
+     * Runs a breadth-first search backwards from a destination port, over the routes arriving at every port
      *
-     * @param minPaths min paths KeyValues array, result of {@link edu.uoc.ds.algorithms.MinimumPaths} algorithm
-     * @param dst      destination vertex
-     * @return boolean indicating whether the vertex is accessible or not
+     * @param network network to be analysed
+     * @param dstPort ordinal of the destination port
+     * @return number of routes from every port to the destination. {@link Integer#MAX_VALUE} for ports that do not
+     * reach it
      */
-    private static <K, V extends Number> boolean isConnected(KeyValue<K, V>[] minPaths, K dst) {
-        for (KeyValue<K, V> entry : minPaths) {
-            if (entry.getKey().equals(dst)) {
-                return entry.getValue().doubleValue() != Double.POSITIVE_INFINITY;
+    static int[] numRoutesTo(NetworkSnapshot network, int dstPort) {
+        int[] numRoutes = new int[network.numPorts()];
+        Arrays.fill(numRoutes, Integer.MAX_VALUE);
+        int[] queue = new int[network.numPorts()];
+        int head = 0;
+        int tail = 0;
+
+        numRoutes[dstPort] = 0;
+        queue[tail++] = dstPort;
+
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = network.firstIncoming(current); i < network.lastIncoming(current); i++) {
+                int previous = network.source(network.incoming(i));
+                if (numRoutes[previous] == Integer.MAX_VALUE) {
+                    numRoutes[previous] = numRoutes[current] + 1;
+                    queue[tail++] = previous;
+                }
             }
         }
-        return false;
+
+        return numRoutes;
+    }
+
+    private static int[] newPredecessors(NetworkSnapshot network) {
+        int[] predecessors = new int[network.numPorts()];
+        Arrays.fill(predecessors, NO_ROUTE);
+        return predecessors;
     }
 
     /**
-     * Returns an entry in the KeyValues array produced by {@link edu.uoc.ds.algorithms.MinimumPaths}.
+     * Rebuilds the route to a port following the routes used to reach every port, from the destination back to the
+     * source of the search
      *
-     * @param minPaths KeyValues array produced by {@link edu.uoc.ds.algorithms.MinimumPaths} algorithm
-     * @param vertex   vertex to find
-     * @return KeyValue of the vertex in the array. Null if not found
+     * @param network      network analysed
+     * @param predecessors position of the route used to reach every port. {@link #NO_ROUTE} for the source and for
+     *                     unreachable ports
+     * @param dstPort      ordinal of the destination port
+     * @return list containing the routes from the source to the destination. Empty list if it was not reached
      */
-    private static <K, V extends Number> KeyValue<K, V> getEntry(KeyValue<K, V>[] minPaths, K vertex) {
-        for (KeyValue<K, V> entry : minPaths) {
-            if (entry.getKey().equals(vertex)) {
-                return entry;
-            }
+    static List<Route> buildRoute(NetworkSnapshot network, int[] predecessors, int dstPort) {
+        List<Route> result = new LinkedList<>();
+        int route = predecessors[dstPort];
+        while (route != NO_ROUTE) {
+            result.insertBeginning(network.route(route));
+            route = predecessors[network.source(route)];
         }
-        throw new NullPointerException("No entry found for " + vertex);
+
+        return result;
     }
 }
@@ -0,0 +1,293 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Edge;
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import edu.uoc.ds.traversal.Iterator;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Best routes based on the distance from a set of hub ports to every other port, kept up to date while ports and
+ * routes are added, moved or their kms change, without calculating them again from scratch.
+ * <p>
+ * The index keeps a shortest path tree per hub, over the ports network itself: ports are identified by their
+ * {@link PortRegistry} ordinals, and the routes leaving and arriving at a port are read from its vertex. A new or
+ * shorter route only repairs the ports it makes closer, with a Dijkstra's algorithm started at its destination. A
+ * moved or longer route only repairs the ports whose best route used it: they are detached from the tree, given the
+ * best distance through the ports that were not affected, and settled again with a Dijkstra's algorithm among
+ * themselves. Routes that are not part of a tree do not affect it.
+ * <p>
+ * Ports are tracked by ordinal and routes by identity, so updating their names or IDs does not affect the index.
+ */
+public class HubDistances {
+
+    private final PortRegistry registry;
+    private final DirectedGraph<Port, Route> network;
+    private final ArrayList<Tree> hubs = new ArrayList<>();
+    private Tree[] trees = new Tree[0];
+
+    // Reused by the searches, grown with the network
+    private IndexedMinHeap pending = new IndexedMinHeap(0);
+    private int[] affected = new int[0];
+
+    private long settledPorts;
+
+    /**
+     * @param registry ordinals and vertexes of the ports of the network
+     * @param network  ports network, whose routes are labels of its edges. Routes must be updated in the network
+     *                 before they are updated in the index
+     */
+    public HubDistances(PortRegistry registry, DirectedGraph<Port, Route> network) {
+        this.registry = registry;
+        this.network = network;
+    }
+
+    /**
+     * Repairs the trees after a route is added to the network, or updated with new ports or kms
+     *
+     * @param route       route as it is now in the network
+     * @param previousDst destination port of the route before it was updated. Null if the route is new
+     */
+    public void updateRoute(Route route, Port previousDst) {
+        if (hubs.isEmpty()) {
+            return;
+        }
+        int previous = previousDst != null ? registry.ordinal(previousDst) : -1;
+        for (Tree tree : hubs) {
+            tree.grow();
+            if (previous >= 0) {
+                tree.removed(route, previous);
+            }
+            tree.added(route);
+        }
+    }
+
+    /**
+     * Registers a hub and calculates its best routes to every port. Hubs already registered are ignored
+     *
+     * @param hub port of the network
+     */
+    public void addHub(Port hub) {
+        if (!isHub(hub)) {
+            int ordinal = registry.ordinal(hub);
+            if (trees.length <= ordinal) {
+                trees = Arrays.copyOf(trees, Math.max(registry.size(), 2 * trees.length));
+            }
+            Tree tree = new Tree(ordinal);
+            tree.build();
+            trees[ordinal] = tree;
+            hubs.add(tree);
+        }
+    }
+
+    public void removeHub(Port hub) {
+        if (isHub(hub)) {
+            hubs.remove(trees[hub.getOrdinal()]);
+            trees[hub.getOrdinal()] = null;
+        }
+    }
+
+    public boolean isHub(Port port) {
+        int ordinal = registry.ordinal(port);
+        return ordinal >= 0 && ordinal < trees.length && trees[ordinal] != null;
+    }
+
+    public int numHubs() {
+        return hubs.size();
+    }
+
+    /**
+     * @return number of ports settled by the searches since the index was created, building the trees of the hubs
+     * and repairing them
+     */
+    public long getSettledPorts() {
+        return settledPorts;
+    }
+
+    private IndexedMinHeap pending() {
+        if (affected.length < registry.size()) {
+            int capacity = Math.max(registry.size(), 2 * affected.length);
+            pending = new IndexedMinHeap(capacity);
+            affected = new int[capacity];
+        }
+        return pending;
+    }
+
+    /**
+     * @param hub registered hub
+     * @param dst destination port
+     * @return kms of the best route from the hub to the destination. Infinity if it is not reachable or not in the
+     * network
+     */
+    public double distance(Port hub, Port dst) {
+        Tree tree = trees[hub.getOrdinal()];
+        tree.grow();
+        int dstPort = registry.ordinal(dst);
+        return dstPort >= 0 ? tree.distances[dstPort] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param hub registered hub
+     * @param dst destination port
+     * @return a list containing the best route based on the distance from the hub. Empty list if the destination is
+     * not reachable, it is the hub or it is not in the network
+     */
+    public List<Route> bestKmsRoute(Port hub, Port dst) {
+        List<Route> result = new LinkedList<>();
+        Tree tree = trees[hub.getOrdinal()];
+        tree.grow();
+        int dstPort = registry.ordinal(dst);
+        if (dstPort < 0) {
+            return result;
+        }
+
+        for (Route route = tree.parents[dstPort]; route != null;
+             route = tree.parents[route.getSrcPort().getOrdinal()]) {
+            result.insertBeginning(route);
+        }
+        return result;
+    }
+
+    private Iterator<Edge<Route, Port>> outgoing(int port) {
+        return network.edgesWithSource(registry.vertex(port));
+    }
+
+    private Iterator<Edge<Route, Port>> incoming(int port) {
+        return network.edgedWithDestination(registry.vertex(port));
+    }
+
+    /**
+     * Shortest path tree of a hub: the kms to every port and the route used to reach it
+     */
+    private class Tree {
+        private final int hub;
+        private double[] distances;
+        private Route[] parents;
+
+        Tree(int hub) {
+            this.hub = hub;
+            this.distances = new double[0];
+            this.parents = new Route[0];
+            grow();
+        }
+
+        /**
+         * Makes room for the ports added to the network since the tree was built, unreachable until routes reach them
+         */
+        void grow() {
+            int numPorts = registry.size();
+            if (numPorts <= distances.length) {
+                return;
+            }
+            int capacity = Math.max(numPorts, 2 * distances.length);
+            int previous = distances.length;
+            distances = Arrays.copyOf(distances, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            Arrays.fill(distances, previous, capacity, Double.POSITIVE_INFINITY);
+        }
+
+        void build() {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(parents, null);
+            distances[hub] = 0;
+
+            IndexedMinHeap pending = pending();
+            pending.insert(hub, 0);
+            settle(pending);
+        }
+
+        /**
+         * Repairs the ports that the route makes closer to the hub
+         */
+        void added(Route route) {
+            int src = route.getSrcPort().getOrdinal();
+            int dst = route.getDstPort().getOrdinal();
+            double distance = distances[src] + route.getKms();
+            if (distance < distances[dst]) {
+                distances[dst] = distance;
+                parents[dst] = route;
+
+                IndexedMinHeap pending = pending();
+                pending.insert(dst, distance);
+                settle(pending);
+            }
+        }
+
+        /**
+         * Repairs the ports whose best route from the hub used the route, which arrived at the previous port
+         */
+        void removed(Route route, int previous) {
+            if (parents[previous] != route) {
+                return;
+            }
+            if (route.getDstPort().getOrdinal() == previous
+                    && distances[route.getSrcPort().getOrdinal()] + route.getKms() < distances[previous]) {
+                // Same port and shorter, so not through the ports below it: added repairs it
+                return;
+            }
+
+            // Ports below the route in the tree
+            IndexedMinHeap pending = pending();
+            int numAffected = 0;
+            affected[numAffected++] = previous;
+            for (int i = 0; i < numAffected; i++) {
+                Iterator<Edge<Route, Port>> it = outgoing(affected[i]);
+                while (it.hasNext()) {
+                    Route next = it.next().getLabel();
+                    int dst = next.getDstPort().getOrdinal();
+                    if (parents[dst] == next) {
+                        affected[numAffected++] = dst;
+                    }
+                }
+            }
+            for (int i = 0; i < numAffected; i++) {
+                distances[affected[i]] = Double.POSITIVE_INFINITY;
+                parents[affected[i]] = null;
+            }
+
+            // Best distance of every affected port through the ports that were not affected
+            for (int i = 0; i < numAffected; i++) {
+                int port = affected[i];
+                Iterator<Edge<Route, Port>> it = incoming(port);
+                while (it.hasNext()) {
+                    Route previousRoute = it.next().getLabel();
+                    double distance = distances[previousRoute.getSrcPort().getOrdinal()] + previousRoute.getKms();
+                    if (distance < distances[port]) {
+                        distances[port] = distance;
+                        parents[port] = previousRoute;
+                    }
+                }
+                if (distances[port] != Double.POSITIVE_INFINITY) {
+                    pending.insert(port, distances[port]);
+                }
+            }
+            settle(pending);
+        }
+
+        /**
+         * Runs Dijkstra's algorithm from the pending ports, whose distances are already set
+         */
+        private void settle(IndexedMinHeap pending) {
+            while (!pending.isEmpty()) {
+                int current = pending.deleteMin();
+                settledPorts++;
+                Iterator<Edge<Route, Port>> it = outgoing(current);
+                while (it.hasNext()) {
+                    Route next = it.next().getLabel();
+                    int dst = next.getDstPort().getOrdinal();
+                    double distance = distances[current] + next.getKms();
+                    if (distance < distances[dst]) {
+                        distances[dst] = distance;
+                        parents[dst] = next;
+                        pending.insertOrDecrease(dst, distance);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package uoc.ds.pr.util;
+
+import java.util.Arrays;
+
+/**
+ * ADT that implements a binary min heap of integer elements between 0 and the capacity, sorted by a double key.
+ * The heap keeps the position of every element, so it can decrease the key of an element already queued in
+ * O(log n) instead of inserting it again.
+ */
+public class IndexedMinHeap {
+
+    private static final int NOT_QUEUED = -1;
+
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, NOT_QUEUED);
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int element) {
+        return positions[element] != NOT_QUEUED;
+    }
+
+    public double key(int element) {
+        return keys[element];
+    }
+
+    /**
+     * Queues an element that is not in the heap
+     *
+     * @param element element to queue
+     * @param key     key of the element
+     */
+    public void insert(int element, double key) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Element " + element + " is already queued");
+        }
+
+        keys[element] = key;
+        heap[size] = element;
+        positions[element] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Decreases the key of an element already queued
+     *
+     * @param element element queued
+     * @param key     new key of the element. It must not be greater than the current one
+     */
+    public void decreaseKey(int element, double key) {
+        if (!contains(element)) {
+            throw new IllegalArgumentException("Element " + element + " is not queued");
+        }
+        if (key > keys[element]) {
+            throw new IllegalArgumentException("The key of element " + element + " cannot be increased");
+        }
+
+        keys[element] = key;
+        siftUp(positions[element]);
+    }
+
+    /**
+     * Queues the element or decreases its key if it is already queued
+     */
+    public void insertOrDecrease(int element, double key) {
+        if (contains(element)) {
+            decreaseKey(element, key);
+        } else {
+            insert(element, key);
+        }
+    }
+
+    /**
+     * Removes all the elements, in O(size) instead of O(capacity), so the heap can be reused
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = NOT_QUEUED;
+        }
+        size = 0;
+    }
+
+    public int peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the element with the minimum key
+     */
+    public int deleteMin() {
+        int min = peek();
+
+        heap[0] = heap[--size];
+        positions[heap[0]] = 0;
+        positions[min] = NOT_QUEUED;
+        if (size > 0) {
+            siftDown(0);
+        }
+
+        return min;
+    }
+
+    private void siftUp(int position) {
+        int element = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (keys[heap[parent]] <= keys[element]) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(element, position);
+    }
+
+    private void siftDown(int position) {
+        int element = heap[position];
+        int child;
+        while ((child = 2 * position + 1) < size) {
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (keys[element] <= keys[heap[child]]) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(element, position);
+    }
+
+    private void move(int element, int position) {
+        heap[position] = element;
+        positions[element] = position;
+    }
+}
@@ -0,0 +1,259 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Alternative routes between two ports of a {@link NetworkSnapshot}, ranked by their distance.
+ * <p>
+ * Runs Yen's algorithm for the K shortest loopless paths. The first route is the one returned by
+ * {@link GraphUtils#bestKmsRoute(NetworkSnapshot, Port, Port)}. Every next route deviates from a previous one at some
+ * port (the spur port) and reaches the destination avoiding the ports already visited and the routes already taken
+ * from that port by the same prefix.
+ * <p>
+ * A reverse Dijkstra from the destination computes the exact kms from every port to the destination once. The spur
+ * searches use them as A* potentials: banning ports or routes can only make the destination farther, so they remain
+ * admissible and consistent, and every spur search settles little more than the ports of the route it returns.
+ */
+public final class KShortestRoutes {
+
+    private KShortestRoutes() {
+        throw new UnsupportedOperationException("This is a utility class and must not be initialized");
+    }
+
+    /**
+     * Calculates up to k loopless routes between two ports, from the shortest to the longest.
+     * Routes with the same kms are sorted by number of ports.
+     *
+     * @param network network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @param k       maximum number of routes to return
+     * @return list of routes, each one a list of consecutive {@link Route}. Empty list if the ports are not connected
+     */
+    public static List<List<Route>> bestKmsRoutes(NetworkSnapshot network, Port src, Port dst, int k) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+
+        List<List<Route>> result = new LinkedList<>();
+        if (k <= 0 || srcPort < 0 || dstPort < 0 || srcPort == dstPort) {
+            return result;
+        }
+
+        double[] potentials = GraphUtils.distancesTo(network, dstPort);
+        if (potentials[srcPort] == Double.POSITIVE_INFINITY) {
+            return result;
+        }
+
+        java.util.List<Path> accepted = new ArrayList<>(k);
+        PriorityQueue<Path> candidates = new PriorityQueue<>();
+        Set<Path> known = new HashSet<>();
+
+        Path first = firstPath(network, srcPort, dstPort);
+        accepted.add(first);
+        known.add(first);
+
+        SpurSearch search = new SpurSearch(network, potentials);
+        while (accepted.size() < k) {
+            int[] last = accepted.get(accepted.size() - 1).routes;
+
+            for (int i = 0; i < last.length; i++) {
+                int spurPort = network.source(last[i]);
+                search.reset();
+
+                // Routes already taken from the spur port by the accepted paths sharing the same prefix
+                for (Path path : accepted) {
+                    if (path.routes.length > i && Arrays.equals(path.routes, 0, i, last, 0, i)) {
+                        search.bannedRoutes.set(path.routes[i]);
+                    }
+                }
+                // Ports of the prefix, to keep the path loopless
+                for (int j = 0; j < i; j++) {
+                    search.bannedPorts.set(network.source(last[j]));
+                }
+
+                int[] spur = search.run(spurPort, dstPort);
+                if (spur != null) {
+                    int[] routes = Arrays.copyOf(last, i + spur.length);
+                    System.arraycopy(spur, 0, routes, i, spur.length);
+                    Path candidate = new Path(network, routes);
+                    if (known.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+
+        for (Path path : accepted) {
+            List<Route> routes = new LinkedList<>();
+            for (int route : path.routes) {
+                routes.insertEnd(network.route(route));
+            }
+            result.insertEnd(routes);
+        }
+
+        return result;
+    }
+
+    private static Path firstPath(NetworkSnapshot network, int srcPort, int dstPort) {
+        int[] predecessors = new int[network.numPorts()];
+        GraphUtils.shortestPaths(network, srcPort, dstPort, new double[network.numPorts()], predecessors);
+
+        int length = 0;
+        for (int route = predecessors[dstPort]; route != GraphUtils.NO_ROUTE;
+             route = predecessors[network.source(route)]) {
+            length++;
+        }
+        int[] routes = new int[length];
+        for (int route = predecessors[dstPort]; route != GraphUtils.NO_ROUTE;
+             route = predecessors[network.source(route)]) {
+            routes[--length] = route;
+        }
+
+        return new Path(network, routes);
+    }
+
+    /**
+     * A* search from a spur port to the destination, guided by the exact kms to the destination over the whole
+     * network. Its arrays are reused between searches and only the ports touched by the last one are reset.
+     */
+    private static class SpurSearch {
+        private final NetworkSnapshot network;
+        private final double[] potentials;
+
+        private final double[] distances;
+        private final int[] predecessors;
+        private final int[] touched;
+        private int numTouched;
+        private final BitSet settled;
+        private final IndexedMinHeap pending;
+
+        private final BitSet bannedPorts;
+        private final BitSet bannedRoutes;
+
+        SpurSearch(NetworkSnapshot network, double[] potentials) {
+            this.network = network;
+            this.potentials = potentials;
+            this.distances = new double[network.numPorts()];
+            this.predecessors = new int[network.numPorts()];
+            this.touched = new int[network.numPorts()];
+            this.settled = new BitSet(network.numPorts());
+            this.pending = new IndexedMinHeap(network.numPorts());
+            this.bannedPorts = new BitSet(network.numPorts());
+            this.bannedRoutes = new BitSet(network.numRoutes());
+
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(predecessors, GraphUtils.NO_ROUTE);
+        }
+
+        void reset() {
+            for (int i = 0; i < numTouched; i++) {
+                distances[touched[i]] = Double.POSITIVE_INFINITY;
+                predecessors[touched[i]] = GraphUtils.NO_ROUTE;
+            }
+            numTouched = 0;
+            settled.clear();
+            pending.clear();
+            bannedPorts.clear();
+            bannedRoutes.clear();
+        }
+
+        /**
+         * @return positions of the routes from the spur port to the destination. Null if it cannot be reached
+         */
+        int[] run(int spurPort, int dstPort) {
+            touch(spurPort, 0, GraphUtils.NO_ROUTE);
+            pending.insert(spurPort, potentials[spurPort]);
+
+            while (!pending.isEmpty()) {
+                int current = pending.deleteMin();
+                if (current == dstPort) {
+                    return routesTo(spurPort, dstPort);
+                }
+                settled.set(current);
+
+                for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+                    int next = network.target(route);
+                    if (bannedRoutes.get(route) || bannedPorts.get(next) || settled.get(next)
+                            || potentials[next] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    double distance = distances[current] + network.kms(route);
+                    if (distance < distances[next]) {
+                        touch(next, distance, route);
+                        pending.insertOrDecrease(next, distance + potentials[next]);
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private void touch(int port, double distance, int route) {
+            if (distances[port] == Double.POSITIVE_INFINITY) {
+                touched[numTouched++] = port;
+            }
+            distances[port] = distance;
+            predecessors[port] = route;
+        }
+
+        private int[] routesTo(int spurPort, int dstPort) {
+            int length = 0;
+            for (int port = dstPort; port != spurPort; port = network.source(predecessors[port])) {
+                length++;
+            }
+            int[] routes = new int[length];
+            for (int port = dstPort; port != spurPort; port = network.source(predecessors[port])) {
+                routes[--length] = predecessors[port];
+            }
+            return routes;
+        }
+    }
+
+    /**
+     * Sequence of route positions with its total kms
+     */
+    private static class Path implements Comparable<Path> {
+        private final int[] routes;
+        private final double kms;
+
+        Path(NetworkSnapshot network, int[] routes) {
+            this.routes = routes;
+            double total = 0;
+            for (int route : routes) {
+                total += network.kms(route);
+            }
+            this.kms = total;
+        }
+
+        @Override
+        public int compareTo(Path other) {
+            int result = Double.compare(kms, other.kms);
+            return result != 0 ? result : Integer.compare(routes.length, other.routes.length);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path && Arrays.equals(routes, ((Path) o).routes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(routes);
+        }
+    }
+}
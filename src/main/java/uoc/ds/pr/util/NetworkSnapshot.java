@@ -0,0 +1,293 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedEdge;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Immutable snapshot of a ports network in compressed sparse row (CSR) format.
+ * <p>
+ * Every port is identified by a dense ordinal between 0 and the number of ports. A snapshot built from a
+ * {@link PortRegistry} uses its ordinals, read from the ports without hashing them. The routes leaving the port
+ * {@code p} are stored contiguously, between the positions {@code firstRoute(p)} (inclusive) and
+ * {@code lastRoute(p)} (exclusive) of the route arrays, in the same order as
+ * {@link DirectedGraph#edgesWithSource(Vertex)} returns them. The routes arriving at every port are indexed the same
+ * way, between {@code firstIncoming(p)} and {@code lastIncoming(p)}, to search the network backwards. Traversals only
+ * read primitive arrays, so they neither allocate iterators nor follow linked nodes.
+ * <p>
+ * When every port has coordinates, {@link #minKms(int, int)} bounds the kms between two ports from below with the
+ * straight line between them through the Earth (the chord of their great-circle), scaled down if any route is shorter
+ * than the chord between its ports.
+ * <p>
+ * The snapshot does not reflect changes made to the graph after it is built.
+ */
+public class NetworkSnapshot {
+
+    private final Port[] ports;
+    // Only for snapshots not built from a registry
+    private final Map<Port, Integer> ordinals;
+
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] kms;
+    private final Route[] routes;
+
+    private final int[] incomingOffsets;
+    private final int[] incomingRoutes;
+
+    // Position of every port in kms from the centre of the Earth, so chords need no trigonometry
+    private final boolean hasCoordinates;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double minKmsScale;
+
+    // Arrays of the PortsWithinKms searches that ended, reused by the next searches over the snapshot
+    final ConcurrentLinkedQueue<PortsWithinKms.Workspace> idleWorkspaces = new ConcurrentLinkedQueue<>();
+
+    public NetworkSnapshot(DirectedGraph<Port, Route> graph) {
+        this(graph, vertexesOf(graph), null);
+    }
+
+    /**
+     * @param graph    ports network
+     * @param registry registry of every port of the network, giving their ordinals
+     */
+    public NetworkSnapshot(DirectedGraph<Port, Route> graph, PortRegistry registry) {
+        this(graph, vertexesOf(registry), registry);
+    }
+
+    private NetworkSnapshot(DirectedGraph<Port, Route> graph, Vertex<Port>[] vertexes, PortRegistry registry) {
+        int numPorts = vertexes.length;
+        ports = new Port[numPorts];
+        for (int i = 0; i < numPorts; i++) {
+            ports[i] = vertexes[i].getValue();
+        }
+
+        Map<Vertex<Port>, Integer> vertexOrdinals = null;
+        if (registry == null) {
+            ordinals = new HashMap<>(2 * numPorts);
+            vertexOrdinals = new IdentityHashMap<>(numPorts);
+            for (int i = 0; i < numPorts; i++) {
+                ordinals.put(ports[i], i);
+                vertexOrdinals.put(vertexes[i], i);
+            }
+        } else {
+            ordinals = null;
+        }
+
+        // First pass counts the routes leaving every port, second one fills them
+        offsets = new int[numPorts + 1];
+        for (int i = 0; i < numPorts; i++) {
+            int count = 0;
+            var edges = graph.edgesWithSource(vertexes[i]);
+            while (edges.hasNext()) {
+                edges.next();
+                count++;
+            }
+            offsets[i + 1] = offsets[i] + count;
+        }
+
+        int numRoutes = offsets[numPorts];
+        sources = new int[numRoutes];
+        targets = new int[numRoutes];
+        kms = new double[numRoutes];
+        routes = new Route[numRoutes];
+
+        for (int i = 0; i < numPorts; i++) {
+            int position = offsets[i];
+            var edges = graph.edgesWithSource(vertexes[i]);
+            while (edges.hasNext()) {
+                var edge = (DirectedEdge<Route, Port>) edges.next();
+                sources[position] = i;
+                targets[position] = vertexOrdinals != null
+                        ? vertexOrdinals.get(edge.getVertexDst())
+                        : edge.getVertexDst().getValue().getOrdinal();
+                kms[position] = edge.getLabel().getKms();
+                routes[position] = edge.getLabel();
+                position++;
+            }
+        }
+
+        // Routes sorted by the port where they arrive
+        incomingOffsets = new int[numPorts + 1];
+        for (int route = 0; route < numRoutes; route++) {
+            incomingOffsets[targets[route] + 1]++;
+        }
+        for (int i = 0; i < numPorts; i++) {
+            incomingOffsets[i + 1] += incomingOffsets[i];
+        }
+        int[] positions = incomingOffsets.clone();
+        incomingRoutes = new int[numRoutes];
+        for (int route = 0; route < numRoutes; route++) {
+            incomingRoutes[positions[targets[route]]++] = route;
+        }
+
+        boolean allCoordinates = true;
+        x = new double[numPorts];
+        y = new double[numPorts];
+        z = new double[numPorts];
+        for (int i = 0; i < numPorts; i++) {
+            allCoordinates &= ports[i].hasCoordinates();
+            double latitude = Math.toRadians(ports[i].getLatitude());
+            double longitude = Math.toRadians(ports[i].getLongitude());
+            x[i] = Utils.EARTH_RADIUS_KMS * Math.cos(latitude) * Math.cos(longitude);
+            y[i] = Utils.EARTH_RADIUS_KMS * Math.cos(latitude) * Math.sin(longitude);
+            z[i] = Utils.EARTH_RADIUS_KMS * Math.sin(latitude);
+        }
+        hasCoordinates = allCoordinates;
+
+        double scale = 1;
+        if (hasCoordinates) {
+            for (int route = 0; route < numRoutes; route++) {
+                double chord = chordKms(sources[route], targets[route]);
+                if (chord > 0) {
+                    scale = Math.min(scale, kms[route] / chord);
+                }
+            }
+        }
+        minKmsScale = Math.max(0, scale);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Vertex<Port>[] newVertexes(int length) {
+        return new Vertex[length];
+    }
+
+    private static Vertex<Port>[] vertexesOf(DirectedGraph<Port, Route> graph) {
+        Vertex<Port>[] vertexes = newVertexes(graph.numVertexs());
+        var it = graph.vertexs();
+        for (int i = 0; it.hasNext(); i++) {
+            vertexes[i] = it.next();
+        }
+        return vertexes;
+    }
+
+    private static Vertex<Port>[] vertexesOf(PortRegistry registry) {
+        Vertex<Port>[] vertexes = newVertexes(registry.size());
+        for (int i = 0; i < vertexes.length; i++) {
+            vertexes[i] = registry.vertex(i);
+        }
+        return vertexes;
+    }
+
+    public int numPorts() {
+        return ports.length;
+    }
+
+    public int numRoutes() {
+        return routes.length;
+    }
+
+    /**
+     * @param port port of the network
+     * @return ordinal of the port. -1 if the port is not part of the network
+     */
+    public int ordinal(Port port) {
+        int ordinal = port.getOrdinal();
+        if (ordinal >= 0 && ordinal < ports.length && ports[ordinal] == port) {
+            return ordinal;
+        }
+        if (ordinals == null) {
+            return -1;
+        }
+        Integer result = ordinals.get(port);
+        return result == null ? -1 : result;
+    }
+
+    public Port port(int ordinal) {
+        return ports[ordinal];
+    }
+
+    /**
+     * @return position of the first route leaving the port
+     */
+    public int firstRoute(int port) {
+        return offsets[port];
+    }
+
+    /**
+     * @return position after the last route leaving the port
+     */
+    public int lastRoute(int port) {
+        return offsets[port + 1];
+    }
+
+    /**
+     * @return index of the first route arriving at the port, to be read with {@link #incoming(int)}
+     */
+    public int firstIncoming(int port) {
+        return incomingOffsets[port];
+    }
+
+    /**
+     * @return index after the last route arriving at the port
+     */
+    public int lastIncoming(int port) {
+        return incomingOffsets[port + 1];
+    }
+
+    /**
+     * @return position of the route arriving at a port, stored in the index {@code i} of the incoming routes
+     */
+    public int incoming(int i) {
+        return incomingRoutes[i];
+    }
+
+    /**
+     * @return ordinal of the port where the route begins
+     */
+    public int source(int route) {
+        return sources[route];
+    }
+
+    /**
+     * @return ordinal of the port where the route arrives
+     */
+    public int target(int route) {
+        return targets[route];
+    }
+
+    public double kms(int route) {
+        return kms[route];
+    }
+
+    public Route route(int route) {
+        return routes[route];
+    }
+
+    /**
+     * @return whether every port has coordinates
+     */
+    public boolean hasCoordinates() {
+        return hasCoordinates;
+    }
+
+    /**
+     * Lower bound of the kms of any route between two ports. It is consistent: it never decreases by more than the
+     * kms of a route when moving through it, so A* searches guided by it settle every port once.
+     *
+     * @param port    ordinal of the port
+     * @param dstPort ordinal of the destination port
+     * @return length of the chord between the ports, a bit shorter than their great-circle distance, scaled so no
+     * route is shorter. 0 if any port of the network has no coordinates
+     */
+    public double minKms(int port, int dstPort) {
+        return hasCoordinates ? minKmsScale * chordKms(port, dstPort) : 0;
+    }
+
+    private double chordKms(int a, int b) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double dz = z[b] - z[a];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
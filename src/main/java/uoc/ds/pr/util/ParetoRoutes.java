@@ -0,0 +1,120 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Routes between two ports of a {@link NetworkSnapshot} that are Pareto optimal on kms and number of ports: no other
+ * route is shorter without calling at more ports, nor calls at fewer ports without being longer.
+ * <p>
+ * Runs a multi-criteria label-setting search in one pass. Two backward searches from the destination give, for every
+ * port, the fewest kms and the fewest routes left to reach it. Labels are settled by their kms plus the fewest kms
+ * left (as in A*), then by number of routes, so a label is dominated as soon as a label with the same or fewer routes
+ * was already settled at its port, and it is discarded without being expanded. Labels that cannot reach the
+ * destination with fewer routes than the labels already settled there are discarded as well. Every port keeps at
+ * most one label per number of routes.
+ */
+public final class ParetoRoutes {
+
+    private ParetoRoutes() {
+        throw new UnsupportedOperationException("This is a utility class and must not be initialized");
+    }
+
+    /**
+     * Calculates the Pareto front of the routes between two ports, based on the kms and the number of ports
+     *
+     * @param network network to be analysed
+     * @param src     source port
+     * @param dst     destination port
+     * @return list of routes, each one a list of consecutive {@link Route}, from the shortest one (the best route
+     * based on the distance) to the one with fewer ports (the best route based on the number of ports). Empty list
+     * if the ports are not connected or they are the same port
+     */
+    public static List<List<Route>> bestRoutes(NetworkSnapshot network, Port src, Port dst) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+
+        List<List<Route>> result = new LinkedList<>();
+        if (srcPort < 0 || dstPort < 0 || srcPort == dstPort) {
+            return result;
+        }
+
+        double[] kmsLeft = GraphUtils.distancesTo(network, dstPort);
+        int[] routesLeft = GraphUtils.numRoutesTo(network, dstPort);
+
+        // Fewest routes of the labels settled at every port
+        int[] minRoutes = new int[network.numPorts()];
+        Arrays.fill(minRoutes, Integer.MAX_VALUE);
+
+        PriorityQueue<Label> pending = new PriorityQueue<>();
+        if (routesLeft[srcPort] != Integer.MAX_VALUE) {
+            pending.add(new Label(srcPort, 0, kmsLeft[srcPort], 0, GraphUtils.NO_ROUTE, null));
+        }
+
+        while (!pending.isEmpty()) {
+            Label current = pending.poll();
+            if (current.numRoutes >= minRoutes[current.port]
+                    || current.numRoutes + routesLeft[current.port] >= minRoutes[dstPort]) {
+                continue;
+            }
+            minRoutes[current.port] = current.numRoutes;
+
+            if (current.port == dstPort) {
+                result.insertEnd(current.toRoutes(network));
+                continue;
+            }
+
+            int numRoutes = current.numRoutes + 1;
+            for (int route = network.firstRoute(current.port); route < network.lastRoute(current.port); route++) {
+                int next = network.target(route);
+                if (numRoutes < minRoutes[next] && routesLeft[next] != Integer.MAX_VALUE
+                        && numRoutes + routesLeft[next] < minRoutes[dstPort]) {
+                    double kms = current.kms + network.kms(route);
+                    pending.add(new Label(next, kms, kms + kmsLeft[next], numRoutes, route, current));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Partial route reaching a port, linked to the label it extends
+     */
+    private static class Label implements Comparable<Label> {
+        private final int port;
+        private final double kms;
+        private final double estimatedKms;
+        private final int numRoutes;
+        private final int route;
+        private final Label previous;
+
+        Label(int port, double kms, double estimatedKms, int numRoutes, int route, Label previous) {
+            this.port = port;
+            this.kms = kms;
+            this.estimatedKms = estimatedKms;
+            this.numRoutes = numRoutes;
+            this.route = route;
+            this.previous = previous;
+        }
+
+        List<Route> toRoutes(NetworkSnapshot network) {
+            List<Route> result = new LinkedList<>();
+            for (Label label = this; label.previous != null; label = label.previous) {
+                result.insertBeginning(network.route(label.route));
+            }
+            return result;
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            int result = Double.compare(estimatedKms, other.estimatedKms);
+            return result != 0 ? result : Integer.compare(numRoutes, other.numRoutes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import uoc.ds.pr.model.Port;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the ports of a ports network, assigning every port a stable dense ordinal in the order they are
+ * registered, and keeping the vertex of the port in the graph.
+ * <p>
+ * The ordinal is stored in the {@link Port} itself, so finding the ordinal or the vertex of a port needs neither
+ * hashing nor comparing names. A {@link NetworkSnapshot} built from the registry uses the same ordinals.
+ */
+public class PortRegistry {
+
+    private Port[] ports = new Port[16];
+    private Vertex<Port>[] vertexes = newVertexes(16);
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Vertex<Port>[] newVertexes(int capacity) {
+        return new Vertex[capacity];
+    }
+
+    /**
+     * Registers a port with the next ordinal. Ports already registered keep their ordinal
+     *
+     * @param port   port to register
+     * @param vertex vertex of the port in the ports network
+     * @return ordinal of the port
+     */
+    public int register(Port port, Vertex<Port> vertex) {
+        int ordinal = ordinal(port);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+
+        if (size == ports.length) {
+            ports = Arrays.copyOf(ports, 2 * size);
+            vertexes = Arrays.copyOf(vertexes, 2 * size);
+        }
+        ports[size] = port;
+        vertexes[size] = vertex;
+        port.setOrdinal(size);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param port port to look for
+     * @return ordinal of the port. -1 if it is not registered in this registry
+     */
+    public int ordinal(Port port) {
+        int ordinal = port.getOrdinal();
+        return ordinal >= 0 && ordinal < size && ports[ordinal] == port ? ordinal : -1;
+    }
+
+    public Port port(int ordinal) {
+        return ports[ordinal];
+    }
+
+    public Vertex<Port> vertex(int ordinal) {
+        return vertexes[ordinal];
+    }
+
+    /**
+     * @param port registered port
+     * @return vertex of the port in the ports network
+     */
+    public Vertex<Port> vertex(Port port) {
+        return vertexes[port.getOrdinal()];
+    }
+}
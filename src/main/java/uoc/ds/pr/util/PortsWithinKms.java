@@ -0,0 +1,140 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.exceptions.InvalidPositionException;
+import edu.uoc.ds.traversal.Iterator;
+import uoc.ds.pr.model.Port;
+
+import java.util.Arrays;
+
+/**
+ * Ports reachable from one port of a {@link NetworkSnapshot} within a distance budget, with the kms of their best
+ * route, from the nearest to the farthest.
+ * <p>
+ * Runs Dijkstra's algorithm lazily: every call to {@link #next()} settles one more port, and the search stops as soon
+ * as the nearest pending port is beyond the budget, so the ports farther away are never explored. Callers that stop
+ * iterating early do not pay for the rest of the search. The distances and the pending ports are kept in primitive
+ * arrays indexed by the ordinals of the ports and an {@link IndexedMinHeap}, so relaxing a route neither boxes nor
+ * allocates.
+ * <p>
+ * Those arrays are as large as the network, about 25 bytes per port. A search that runs until {@link #hasNext()}
+ * returns false hands them back to the snapshot, and the next search over it reuses them, so a search only pays for
+ * the ports it explores. The ports reached by a search are told apart by a stamp, so the arrays are never cleared.
+ * Searches abandoned before the end, or running at the same time as others, allocate their own arrays. The iterator
+ * does not reflect changes made to the ports network after it is created.
+ */
+public class PortsWithinKms implements Iterator<KeyValue<Port, Double>> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Idle workspaces kept by every snapshot
+     */
+    private static final int MAX_IDLE_WORKSPACES = Runtime.getRuntime().availableProcessors();
+
+    private final NetworkSnapshot network;
+    private final double maxKms;
+    private Workspace workspace;
+
+    /**
+     * @param network network to be analysed
+     * @param source  source port. It is not returned
+     * @param maxKms  maximum kms of the routes from the source port, inclusive
+     */
+    public PortsWithinKms(NetworkSnapshot network, Port source, double maxKms) {
+        this.network = network;
+        this.maxKms = maxKms;
+
+        int sourcePort = network.ordinal(source);
+        if (sourcePort >= 0 && maxKms >= 0) {
+            workspace = network.idleWorkspaces.poll();
+            if (workspace == null) {
+                workspace = new Workspace(network.numPorts());
+            }
+            workspace.start();
+            workspace.reach(sourcePort, 0);
+            relax(sourcePort);
+            releaseIfDone();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return workspace != null;
+    }
+
+    /**
+     * Settles the nearest port not returned yet
+     *
+     * @return the port and the kms of its best route from the source port
+     * @throws InvalidPositionException if there are no more ports within the budget
+     */
+    @Override
+    public KeyValue<Port, Double> next() throws InvalidPositionException {
+        if (!hasNext()) {
+            throw new InvalidPositionException();
+        }
+        int current = workspace.pending.deleteMin();
+        double kms = workspace.distances[current];
+        relax(current);
+        releaseIfDone();
+        return new KeyValue<>(network.port(current), kms);
+    }
+
+    /**
+     * Settled ports are never improved again, since the kms of the routes are not negative
+     */
+    private void relax(int port) {
+        double kms = workspace.distances[port];
+        for (int route = network.firstRoute(port); route < network.lastRoute(port); route++) {
+            int next = network.target(route);
+            double distance = kms + network.kms(route);
+            if (distance <= maxKms && (!workspace.reached(next) || distance < workspace.distances[next])) {
+                workspace.reach(next, distance);
+                workspace.pending.insertOrDecrease(next, distance);
+            }
+        }
+    }
+
+    private void releaseIfDone() {
+        if (workspace.pending.isEmpty()) {
+            if (network.idleWorkspaces.size() < MAX_IDLE_WORKSPACES) {
+                network.idleWorkspaces.offer(workspace);
+            }
+            workspace = null;
+        }
+    }
+
+    /**
+     * Arrays of a search over a snapshot. A port is reached by the current search if its stamp is the one of the
+     * search
+     */
+    static class Workspace {
+        private final double[] distances;
+        private final int[] stamps;
+        private final IndexedMinHeap pending;
+        private int stamp;
+
+        Workspace(int numPorts) {
+            distances = new double[numPorts];
+            stamps = new int[numPorts];
+            pending = new IndexedMinHeap(numPorts);
+        }
+
+        void start() {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                stamp = 0;
+            }
+            stamp++;
+        }
+
+        boolean reached(int port) {
+            return stamps[port] == stamp;
+        }
+
+        void reach(int port, double kms) {
+            stamps[port] = stamp;
+            distances[port] = kms;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package uoc.ds.pr.util;
+
+import uoc.ds.pr.model.Port;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reachability index of a {@link NetworkSnapshot}, based on its strongly connected components.
+ * <p>
+ * Ports of the same component are always connected between them. Components are numbered in reverse topological
+ * order of the condensation of the network (every route goes to a component with a lower or equal number), and
+ * every component keeps a bitset with the components it reaches. So, most queries are answered with a lookup.
+ * <p>
+ * The bitsets need one bit per pair of components, so they are only built when the network has up to
+ * {@link #MAX_INDEXED_COMPONENTS} components. Otherwise, queries that the topological order cannot answer fall back to
+ * a breadth-first search.
+ */
+public class ReachabilityIndex {
+
+    public static final int MAX_INDEXED_COMPONENTS = 16384;
+
+    private static final int UNVISITED = -1;
+
+    private final NetworkSnapshot network;
+    private final int[] components;
+    private final int numComponents;
+    private final BitSet[] reachable;
+
+    public ReachabilityIndex(NetworkSnapshot network) {
+        this(network, MAX_INDEXED_COMPONENTS);
+    }
+
+    /**
+     * @param network              network to index
+     * @param maxIndexedComponents maximum number of components to build the reachability bitsets
+     */
+    public ReachabilityIndex(NetworkSnapshot network, int maxIndexedComponents) {
+        this.network = network;
+        this.components = new int[network.numPorts()];
+        this.numComponents = findComponents();
+        this.reachable = numComponents <= maxIndexedComponents ? buildReachable() : null;
+    }
+
+    public NetworkSnapshot getNetwork() {
+        return network;
+    }
+
+    public int numComponents() {
+        return numComponents;
+    }
+
+    /**
+     * @return component of the port, identified by its ordinal in the network
+     */
+    public int component(int port) {
+        return components[port];
+    }
+
+    /**
+     * @return whether the reachability between components is indexed or not
+     */
+    public boolean isIndexed() {
+        return reachable != null;
+    }
+
+    /**
+     * Checks if a route exist between two ports
+     *
+     * @param src source port
+     * @param dst destination port
+     * @return boolean indicating whether a route exists or not
+     */
+    public boolean existConnection(Port src, Port dst) {
+        int srcComponent = components[network.ordinal(src)];
+        int dstComponent = components[network.ordinal(dst)];
+
+        if (srcComponent == dstComponent) {
+            return true;
+        }
+        if (srcComponent < dstComponent) {
+            // Routes never go to a component with a greater number
+            return false;
+        }
+        if (isIndexed()) {
+            return reachable[srcComponent].get(dstComponent);
+        }
+
+        return GraphUtils.existConnection(network, src, dst);
+    }
+
+    /**
+     * Iterative Tarjan's algorithm. Components are numbered as they are completed, which is a reverse topological
+     * order of the condensation.
+     *
+     * @return number of components found
+     */
+    private int findComponents() {
+        int numPorts = network.numPorts();
+        int[] indexes = new int[numPorts];
+        int[] lowLinks = new int[numPorts];
+        int[] nextRoutes = new int[numPorts];
+        int[] stack = new int[numPorts];
+        int[] calls = new int[numPorts];
+        BitSet onStack = new BitSet(numPorts);
+        Arrays.fill(indexes, UNVISITED);
+
+        int counter = 0;
+        int found = 0;
+        for (int root = 0; root < numPorts; root++) {
+            if (indexes[root] != UNVISITED) {
+                continue;
+            }
+
+            int stackSize = 0;
+            int callsSize = 0;
+            indexes[root] = lowLinks[root] = counter++;
+            nextRoutes[root] = network.firstRoute(root);
+            stack[stackSize++] = root;
+            onStack.set(root);
+            calls[callsSize++] = root;
+
+            while (callsSize > 0) {
+                int port = calls[callsSize - 1];
+                if (nextRoutes[port] < network.lastRoute(port)) {
+                    int next = network.target(nextRoutes[port]++);
+                    if (indexes[next] == UNVISITED) {
+                        indexes[next] = lowLinks[next] = counter++;
+                        nextRoutes[next] = network.firstRoute(next);
+                        stack[stackSize++] = next;
+                        onStack.set(next);
+                        calls[callsSize++] = next;
+                    } else if (onStack.get(next)) {
+                        lowLinks[port] = Math.min(lowLinks[port], indexes[next]);
+                    }
+                    continue;
+                }
+
+                callsSize--;
+                if (lowLinks[port] == indexes[port]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack.clear(member);
+                        components[member] = found;
+                    } while (member != port);
+                    found++;
+                }
+                if (callsSize > 0) {
+                    int parent = calls[callsSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[port]);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Builds the set of components reached by every component. As routes only go to components with a lower number,
+     * every set is built from sets already completed.
+     */
+    private BitSet[] buildReachable() {
+        // Ports sorted by component
+        int[] offsets = new int[numComponents + 1];
+        for (int component : components) {
+            offsets[component + 1]++;
+        }
+        for (int i = 0; i < numComponents; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] positions = offsets.clone();
+        int[] ports = new int[components.length];
+        for (int port = 0; port < components.length; port++) {
+            ports[positions[components[port]]++] = port;
+        }
+
+        BitSet[] result = new BitSet[numComponents];
+        for (int component = 0; component < numComponents; component++) {
+            BitSet reached = new BitSet(component + 1);
+            reached.set(component);
+
+            for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                int port = ports[i];
+                for (int route = network.firstRoute(port); route < network.lastRoute(port); route++) {
+                    int next = components[network.target(route)];
+                    // Components already reached include everything they reach
+                    if (!reached.get(next)) {
+                        reached.or(result[next]);
+                    }
+                }
+            }
+            result[component] = reached;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Best routes of a batch of queries between two ports, calculated in parallel over a {@link NetworkSnapshot}.
+ * <p>
+ * Queries are grouped by source port and query type, and every group is answered by one search from its source:
+ * a search that stops at the destination when the group has one query, or a single source search reaching every
+ * port when it has more, from which the route to every destination is rebuilt. Groups run in parallel on a
+ * {@link ForkJoinPool}; the snapshot is read-only, so they share it without locks.
+ */
+public class RouteBatch {
+
+    /**
+     * @param srcPortId source port ID
+     * @param dstPortId destination port ID
+     * @param type      whether the best route is based on the distance or on the number of ports
+     */
+    public record Query(String srcPortId, String dstPortId, RouteCache.QueryType type) {
+    }
+
+    /**
+     * Counters of a batch
+     *
+     * @param queries      queries in the batch
+     * @param searches     searches run, one per group of queries with the same source port and type
+     * @param elapsedNanos time spent calculating the routes
+     */
+    public record Stats(int queries, int searches, long elapsedNanos) {
+
+        /**
+         * @return queries answered per second
+         */
+        public double throughput() {
+            return elapsedNanos > 0 ? queries * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final List<Route>[] routes;
+    private final Stats stats;
+
+    /**
+     * Calculates the best routes of the queries on the common {@link ForkJoinPool}
+     *
+     * @see #RouteBatch(NetworkSnapshot, Query[], Function, ForkJoinPool)
+     */
+    public RouteBatch(NetworkSnapshot network, Query[] queries, Function<String, Port> ports) {
+        this(network, queries, ports, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates the best routes of the queries
+     *
+     * @param network network to be analysed
+     * @param queries queries of the batch
+     * @param ports   function returning the port with an ID, or null if it does not exist. It is only called from
+     *                the current thread
+     * @param pool    pool running the searches
+     */
+    public RouteBatch(NetworkSnapshot network, Query[] queries, Function<String, Port> ports, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        routes = newRoutes(queries.length);
+
+        // Ordinals of the ports of every valid query. Queries with unknown or equal ports are left without routes
+        int[] sources = new int[queries.length];
+        int[] destinations = new int[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            sources[i] = ordinal(network, ports.apply(queries[i].srcPortId()));
+            destinations[i] = ordinal(network, ports.apply(queries[i].dstPortId()));
+        }
+        Integer[] sorted = IntStream.range(0, queries.length)
+                .filter(i -> sources[i] >= 0 && destinations[i] >= 0 && sources[i] != destinations[i])
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> sources[i]).thenComparing(i -> queries[i].type()))
+                .toArray(Integer[]::new);
+        int numValid = sorted.length;
+
+        // First query of every group, plus the end of the last group
+        int[] groups = IntStream.rangeClosed(0, numValid)
+                .filter(i -> i == 0 || i == numValid || sources[sorted[i]] != sources[sorted[i - 1]]
+                        || queries[sorted[i]].type() != queries[sorted[i - 1]].type())
+                .toArray();
+        int numGroups = numValid > 0 ? groups.length - 1 : 0;
+
+        pool.submit(() -> IntStream.range(0, numGroups).parallel().forEach(group -> {
+            int first = groups[group];
+            int last = groups[group + 1];
+            int srcPort = sources[sorted[first]];
+            RouteCache.QueryType type = queries[sorted[first]].type();
+
+            // A single query stops at its destination, a group reaches every port
+            int dstPort = last - first == 1 ? destinations[sorted[first]] : GraphUtils.NO_ROUTE;
+            int[] predecessors = new int[network.numPorts()];
+            if (type == RouteCache.QueryType.KMS) {
+                GraphUtils.shortestPaths(network, srcPort, dstPort, new double[network.numPorts()], predecessors);
+            } else {
+                GraphUtils.fewestPorts(network, srcPort, dstPort, predecessors);
+            }
+
+            for (int i = first; i < last; i++) {
+                routes[sorted[i]] = GraphUtils.buildRoute(network, predecessors, destinations[sorted[i]]);
+            }
+        })).join();
+
+        stats = new Stats(queries.length, numGroups, System.nanoTime() - start);
+    }
+
+    private static int ordinal(NetworkSnapshot network, Port port) {
+        return port != null ? network.ordinal(port) : -1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Route>[] newRoutes(int length) {
+        return new List[length];
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    /**
+     * @param i position of the query in the batch
+     * @return list containing the best route of the query. Empty list if the ports are not connected. Null if any of
+     * the ports does not exist or they are the same port
+     */
+    public List<Route> route(int i) {
+        return routes[i];
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,137 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.helpers.Position;
+import edu.uoc.ds.adt.nonlinear.HashTable;
+import edu.uoc.ds.adt.sequential.DoublyLinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import uoc.ds.pr.model.Route;
+
+/**
+ * Bounded LRU cache of the routes calculated between two ports, by query type.
+ * <p>
+ * The entries are kept in a doubly linked list from the least to the most recently used one, and a hash table with
+ * as many slots as the capacity finds the position of every entry by its ports and query type. Using an entry moves
+ * it to the end of the list, and the first one is evicted when the cache is full, both in O(1).
+ * <p>
+ * Every entry belongs to a version of the ports network. When the cache is accessed with a different version, all
+ * the entries are discarded, as the network has changed since they were calculated.
+ */
+public class RouteCache {
+
+    public enum QueryType {
+        KMS,
+        PORTS
+    }
+
+    /**
+     * Counters of the cache since it was created
+     *
+     * @param hits          queries answered from the cache
+     * @param misses        queries not found in the cache
+     * @param evictions     entries discarded to make room for new ones
+     * @param invalidations times that all the entries were discarded because the network changed
+     * @param size          current number of entries
+     * @param capacity      maximum number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, int capacity) {
+    }
+
+    private record Key(QueryType type, String srcPortId, String dstPortId) {
+    }
+
+    private record Entry(Key key, List<Route> route) {
+    }
+
+    private final int capacity;
+    private HashTable<Key, Position<Entry>> positions;
+    private DoublyLinkedList<Entry> entries;
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param capacity maximum number of entries. 0 disables the cache
+     */
+    public RouteCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+
+        this.capacity = capacity;
+        clear();
+    }
+
+    /**
+     * Returns the route calculated between two ports
+     *
+     * @param type      type of query
+     * @param srcPortId source port ID
+     * @param dstPortId destination port ID
+     * @param version   current version of the ports network
+     * @return the route cached. Null if it is not found
+     */
+    public List<Route> get(QueryType type, String srcPortId, String dstPortId, long version) {
+        checkVersion(version);
+
+        Key key = new Key(type, srcPortId, dstPortId);
+        Position<Entry> position = positions.get(key);
+        if (position == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        Entry entry = entries.delete(position);
+        positions.put(key, entries.insertEnd(entry));
+        return entry.route();
+    }
+
+    /**
+     * Caches the route calculated between two ports, discarding the least recently used entry if the cache is full
+     *
+     * @param type      type of query
+     * @param srcPortId source port ID
+     * @param dstPortId destination port ID
+     * @param version   version of the ports network used to calculate the route
+     * @param route     route calculated. Empty if the ports are not connected
+     */
+    public void put(QueryType type, String srcPortId, String dstPortId, long version, List<Route> route) {
+        checkVersion(version);
+
+        if (capacity == 0) {
+            return;
+        }
+
+        Key key = new Key(type, srcPortId, dstPortId);
+        Position<Entry> position = positions.get(key);
+        if (position != null) {
+            entries.delete(position);
+        } else if (entries.size() == capacity) {
+            positions.delete(entries.deleteFirst().key());
+            evictions++;
+        }
+        positions.put(key, entries.insertEnd(new Entry(key, route)));
+    }
+
+    public Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), capacity);
+    }
+
+    private void checkVersion(long version) {
+        if (this.version != version) {
+            if (!entries.isEmpty()) {
+                clear();
+                invalidations++;
+            }
+            this.version = version;
+        }
+    }
+
+    private void clear() {
+        positions = new HashTable<>(Math.max(1, capacity));
+        entries = new DoublyLinkedList<>();
+    }
+}
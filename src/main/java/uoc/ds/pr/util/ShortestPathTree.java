@@ -0,0 +1,94 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import edu.uoc.ds.traversal.Iterator;
+import edu.uoc.ds.traversal.IteratorArrayImpl;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Best routes based on the distance from one port to every other port of a {@link NetworkSnapshot}.
+ * <p>
+ * Dijkstra's algorithm runs once over the whole network when the tree is built. Then, the kms and the best route to
+ * any destination are answered without searching again, following the same routes that
+ * {@link GraphUtils#bestKmsRoute(NetworkSnapshot, Port, Port)} would return. The tree does not reflect changes made
+ * to the ports network after it is built.
+ */
+public class ShortestPathTree {
+
+    private final NetworkSnapshot network;
+    private final Port source;
+    private final double[] distances;
+    private final int[] predecessors;
+
+    public ShortestPathTree(NetworkSnapshot network, Port source) {
+        this.network = network;
+        this.source = source;
+        this.distances = new double[network.numPorts()];
+        this.predecessors = new int[network.numPorts()];
+
+        GraphUtils.shortestPaths(network, network.ordinal(source), GraphUtils.NO_ROUTE, distances, predecessors);
+    }
+
+    public Port getSource() {
+        return source;
+    }
+
+    /**
+     * @param dst destination port
+     * @return whether a route exists from the source port to the destination. The source port is always reachable
+     */
+    public boolean isReachable(Port dst) {
+        int dstPort = network.ordinal(dst);
+        return dstPort >= 0 && distances[dstPort] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param dst destination port
+     * @return kms of the best route from the source port. Infinity if the destination is not reachable
+     */
+    public double distance(Port dst) {
+        int dstPort = network.ordinal(dst);
+        return dstPort >= 0 ? distances[dstPort] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param dst destination port
+     * @return a list containing the best route based on the distance from the source port. Empty list if the
+     * destination is not reachable or it is the source port
+     */
+    public List<Route> bestKmsRoute(Port dst) {
+        int dstPort = network.ordinal(dst);
+        if (dstPort < 0) {
+            return new LinkedList<>();
+        }
+        return GraphUtils.buildRoute(network, predecessors, dstPort);
+    }
+
+    /**
+     * @return ports reachable from the source port, except the source port itself, from the nearest to the farthest
+     */
+    public Iterator<Port> reachablePorts() {
+        int sourcePort = network.ordinal(source);
+        Port[] result = IntStream.range(0, distances.length)
+                .filter(port -> port != sourcePort && distances[port] != Double.POSITIVE_INFINITY)
+                .boxed()
+                .sorted(Comparator.comparingDouble(port -> distances[port]))
+                .map(network::port)
+                .toArray(Port[]::new);
+
+        return new IteratorArrayImpl<>(result, result.length, 0);
+    }
+
+    /**
+     * @return number of ports reachable from the source port, except the source port itself
+     */
+    public int numReachablePorts() {
+        return (int) Arrays.stream(distances).filter(distance -> distance != Double.POSITIVE_INFINITY).count() - 1;
+    }
+}
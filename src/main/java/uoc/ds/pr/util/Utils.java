@@ -12,6 +12,8 @@ import java.util.function.Predicate;
 
 public final class Utils {
 
+    public static final double EARTH_RADIUS_KMS = 6371.0;
+
     private Utils() {
         throw new UnsupportedOperationException("This is a utility class and must not be initialized");
     }
@@ -175,4 +177,24 @@ public final class Utils {
                     .ifPresent(target::delete);
         }
     }
+
+    /**
+     * Calculates the great-circle distance between two points with the haversine formula. It is the shortest
+     * distance between them over the surface of the Earth.
+     *
+     * @param latitude1  latitude of the first point in degrees
+     * @param longitude1 longitude of the first point in degrees
+     * @param latitude2  latitude of the second point in degrees
+     * @param longitude2 longitude of the second point in degrees
+     * @return distance in kms
+     */
+    public static double greatCircleKms(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KMS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
 }
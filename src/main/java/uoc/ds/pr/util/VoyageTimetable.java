@@ -0,0 +1,135 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import edu.uoc.ds.traversal.Iterator;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Voyage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * Immutable timetable of the voyages between the ports of a {@link NetworkSnapshot}, to plan itineraries.
+ * <p>
+ * The voyages are sorted by departure time, and their departure and arrival times and the ordinals of their ports
+ * are kept in primitive arrays. Earliest arrival queries run the connection scan algorithm: a binary search finds the
+ * first voyage leaving after the requested time, and the voyages are scanned once in departure order until they leave
+ * after the earliest arrival found at the destination. A voyage can be taken if it leaves from a port reached before
+ * its departure.
+ * <p>
+ * The timetable does not reflect voyages added or updated after it is built. Voyages arriving before they depart
+ * are ignored.
+ */
+public class VoyageTimetable {
+
+    private static final long NOT_REACHED = Long.MAX_VALUE;
+
+    private final NetworkSnapshot network;
+    private final Voyage[] voyages;
+    private final long[] departures;
+    private final long[] arrivals;
+    private final int[] sources;
+    private final int[] targets;
+
+    public VoyageTimetable(NetworkSnapshot network, Iterator<Voyage> voyages) {
+        this.network = network;
+
+        var valid = new ArrayList<Voyage>();
+        while (voyages.hasNext()) {
+            Voyage voyage = voyages.next();
+            if (!voyage.getArrivalDt().before(voyage.getDepartureDt())
+                    && network.ordinal(voyage.getRoute().getSrcPort()) >= 0
+                    && network.ordinal(voyage.getRoute().getDstPort()) >= 0) {
+                valid.add(voyage);
+            }
+        }
+
+        this.voyages = valid.toArray(Voyage[]::new);
+        Arrays.sort(this.voyages, Comparator.comparing(Voyage::getDepartureDt));
+
+        int numVoyages = this.voyages.length;
+        departures = new long[numVoyages];
+        arrivals = new long[numVoyages];
+        sources = new int[numVoyages];
+        targets = new int[numVoyages];
+        for (int i = 0; i < numVoyages; i++) {
+            departures[i] = this.voyages[i].getDepartureDt().getTime();
+            arrivals[i] = this.voyages[i].getArrivalDt().getTime();
+            sources[i] = network.ordinal(this.voyages[i].getRoute().getSrcPort());
+            targets[i] = network.ordinal(this.voyages[i].getRoute().getDstPort());
+        }
+    }
+
+    public NetworkSnapshot getNetwork() {
+        return network;
+    }
+
+    public int numVoyages() {
+        return voyages.length;
+    }
+
+    /**
+     * Calculates the itinerary that arrives earliest at the destination, leaving from the source port not before a
+     * given date. Among the itineraries arriving at the same time, the first one found is returned.
+     *
+     * @param src         source port
+     * @param dst         destination port
+     * @param departureDt earliest departure date
+     * @return list containing the consecutive voyages of the itinerary. Empty list if the destination cannot be
+     * reached or it is the source port
+     */
+    public List<Voyage> earliestArrival(Port src, Port dst, Date departureDt) {
+        int srcPort = network.ordinal(src);
+        int dstPort = network.ordinal(dst);
+
+        List<Voyage> result = new LinkedList<>();
+        if (srcPort < 0 || dstPort < 0 || srcPort == dstPort) {
+            return result;
+        }
+
+        long[] earliest = new long[network.numPorts()];
+        int[] lastVoyages = new int[network.numPorts()];
+        Arrays.fill(earliest, NOT_REACHED);
+        earliest[srcPort] = departureDt.getTime();
+
+        for (int i = firstDeparture(departureDt.getTime()); i < voyages.length; i++) {
+            if (departures[i] >= earliest[dstPort]) {
+                break;
+            }
+            if (earliest[sources[i]] <= departures[i] && arrivals[i] < earliest[targets[i]]) {
+                earliest[targets[i]] = arrivals[i];
+                lastVoyages[targets[i]] = i;
+            }
+        }
+
+        if (earliest[dstPort] == NOT_REACHED) {
+            return result;
+        }
+
+        // A port is only reached again by voyages arriving earlier, so the voyages before the last one never change
+        for (int port = dstPort; port != srcPort; port = sources[lastVoyages[port]]) {
+            result.insertBeginning(voyages[lastVoyages[port]]);
+        }
+        return result;
+    }
+
+    /**
+     * @return index of the first voyage leaving at the given time or later
+     */
+    private int firstDeparture(long time) {
+        int low = 0;
+        int high = departures.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departures[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -1,12 +1,24 @@
 package uoc.ds.pr;
 
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.adt.sequential.List;
 import edu.uoc.ds.traversal.Iterator;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import uoc.ds.pr.exceptions.*;
 import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Product;
+import uoc.ds.pr.model.Reservation;
 import uoc.ds.pr.model.Route;
+import uoc.ds.pr.model.Voyage;
+import uoc.ds.pr.util.AllPairsRoutes;
+import uoc.ds.pr.util.DateUtils;
+import uoc.ds.pr.util.RouteBatch;
+import uoc.ds.pr.util.RouteCache;
+import uoc.ds.pr.util.ShortestPathTree;
+
+import java.util.concurrent.ExecutionException;
 
 public class ShippingLinePR2PlusTest extends  ShippingLinePR2Test {
 
@@ -109,5 +121,604 @@ public class ShippingLinePR2PlusTest extends  ShippingLinePR2Test {
 
     }
 
+    @Test
+    public void routesAfterNetworkChangesTest() throws DSException {
+        Assert.assertFalse(theShippingLine.existsRouteBetween("ATH", "DBK"));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestPortsRoute("ATH", "DBK"));
+
+        theShippingLine.addPort("ZAD", "Zadar", "http://image24", "description24");
+        theShippingLine.addRoute("routeId100", "ATH", "ZAD", 900);
+        theShippingLine.addRoute("routeId101", "ZAD", "DBK", 250);
+
+        Assert.assertTrue(theShippingLine.existsRouteBetween("ATH", "DBK"));
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("ATH", "DBK");
+        Assert.assertEquals("Atenas-Zadar", it.next().toString());
+        Assert.assertEquals("Zadar-Dubrovnik", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        // Ports already connected
+        theShippingLine.addRoute("routeId102", "ATH", "DBK", 1500);
+        Assert.assertFalse(theShippingLine.existsRouteBetween("DBK", "ATH"));
+        Assert.assertEquals("Atenas-Dubrovnik", theShippingLine.getBestPortsRoute("ATH", "DBK").next().toString());
+
+        theShippingLine.addRoute("routeId103", "DBK", "ZAD", 250);
+        Assert.assertTrue(theShippingLine.existsRouteBetween("DBK", "ZAD"));
+        Assert.assertFalse(theShippingLine.existsRouteBetween("DBK", "ATH"));
+    }
+
+    @Test
+    public void routeCacheTest() throws DSException {
+        RouteCache.Stats stats = theShippingLine.getRouteCacheStats();
+        Assert.assertEquals(0, stats.hits());
+        Assert.assertEquals(0, stats.misses());
+
+        theShippingLine.getBestKmsRoute("BCN", "VLC");
+        theShippingLine.getBestKmsRoute("BCN", "VLC");
+        theShippingLine.getBestPortsRoute("BCN", "VLC");
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestKmsRoute("ATH", "DBK"));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestKmsRoute("ATH", "DBK"));
+
+        stats = theShippingLine.getRouteCacheStats();
+        Assert.assertEquals(2, stats.hits());
+        Assert.assertEquals(3, stats.misses());
+        Assert.assertEquals(3, stats.size());
+
+        // Updating the details of a port does not change its routes
+        theShippingLine.addPort("BCN", "Barcelona", "http://image", "Port of Barcelona");
+        theShippingLine.getBestKmsRoute("BCN", "VLC");
+        stats = theShippingLine.getRouteCacheStats();
+        Assert.assertEquals(3, stats.hits());
+        Assert.assertEquals(0, stats.invalidations());
+
+        // Changes in the network discard the cached routes
+        theShippingLine.addRoute("routeId100", "ATH", "DBK", 1500);
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("ATH", "DBK");
+        Assert.assertEquals("Atenas-Dubrovnik", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        stats = theShippingLine.getRouteCacheStats();
+        Assert.assertEquals(1, stats.invalidations());
+        Assert.assertEquals(1, stats.size());
+    }
+
+    @Test
+    public void allPairsRoutesTest() throws Exception {
+        ShippingLinePR2Impl shippingLine = (ShippingLinePR2Impl) theShippingLine;
+        Assert.assertFalse(shippingLine.isAllPairsRoutesEnabled());
+        Assert.assertNull(shippingLine.updateAllPairsRoutes());
+        Assert.assertNull(shippingLine.awaitAllPairsRoutes());
+
+        shippingLine.enableAllPairsRoutes();
+        Assert.assertTrue(shippingLine.isAllPairsRoutesEnabled());
+        Assert.assertNotNull(shippingLine.awaitAllPairsRoutes());
+        Assert.assertNull(shippingLine.updateAllPairsRoutes());
+
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+        Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+        Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestKmsRoute("ATH", "DBK"));
+
+        // New ports are searched in the network until the routes are calculated again
+        theShippingLine.addPort("ZAD", "Zadar", "http://image24", "description24");
+        theShippingLine.addRoute("routeId100", "ATH", "ZAD", 900);
+        theShippingLine.addRoute("routeId101", "ZAD", "DBK", 250);
+        it = theShippingLine.getBestKmsRoute("ATH", "ZAD");
+        Assert.assertEquals("Atenas-Zadar", it.next().toString());
+
+        Assert.assertEquals(23 + 1, shippingLine.awaitAllPairsRoutes().getNetwork().numPorts());
+        it = theShippingLine.getBestKmsRoute("ATH", "DBK");
+        Assert.assertEquals("Atenas-Zadar", it.next().toString());
+        Assert.assertEquals("Zadar-Dubrovnik", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        shippingLine.disableAllPairsRoutes();
+        Assert.assertFalse(shippingLine.isAllPairsRoutesEnabled());
+        Assert.assertEquals("Atenas-Zadar", theShippingLine.getBestKmsRoute("ATH", "DBK").next().toString());
+    }
+
+    @Test
+    public void allPairsRoutesMovedRouteTest() throws Exception {
+        ShippingLinePR2Impl shippingLine = (ShippingLinePR2Impl) theShippingLine;
+        shippingLine.enableAllPairsRoutes();
+        shippingLine.awaitAllPairsRoutes();
+
+        // Moving Tarragona-La Ràpita breaks the best route from BCN to VLC of the previous routes, which are used
+        // until the new ones are calculated
+        theShippingLine.addRoute("routeId12", "TARR", "ATH", 69);
+        for (int i = 0; i < 2; i++) {
+            if (!theShippingLine.existsRouteBetween("BCN", "VLC")) {
+                Assert.assertThrows(NoRouteException.class, () -> theShippingLine.getBestKmsRoute("BCN", "VLC"));
+            } else {
+                Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+                Port current = theShippingLine.getPort("BCN");
+                while (it.hasNext()) {
+                    Route route = it.next();
+                    Assert.assertSame(current, route.getSrcPort());
+                    current = route.getDstPort();
+                }
+                Assert.assertSame(theShippingLine.getPort("VLC"), current);
+            }
+            shippingLine.awaitAllPairsRoutes();
+        }
+        shippingLine.disableAllPairsRoutes();
+    }
+
+    @Test
+    public void allPairsRoutesTooManyPortsTest() throws Exception {
+        ShippingLinePR2Impl shippingLine = (ShippingLinePR2Impl) theShippingLine;
+        for (int i = theShippingLine.numPorts(); i <= AllPairsRoutes.MAX_PORTS; i++) {
+            theShippingLine.addPort("extraPort" + i, "Port " + i, "http://image", "description");
+        }
+        shippingLine.enableAllPairsRoutes();
+        Assert.assertNull(shippingLine.updateAllPairsRoutes());
+        Assert.assertTrue(shippingLine.getAllPairsRoutesFailure() instanceof IllegalArgumentException);
+        ExecutionException exception = Assert.assertThrows(ExecutionException.class,
+                shippingLine::awaitAllPairsRoutes);
+        Assert.assertSame(shippingLine.getAllPairsRoutesFailure(), exception.getCause());
+
+        // The routes are searched in the ports network, and not calculated again until it changes
+        Assert.assertEquals("Barcelona-Tarragona", theShippingLine.getBestKmsRoute("BCN", "VLC").next().toString());
+        Assert.assertNull(shippingLine.updateAllPairsRoutes());
+        theShippingLine.addRoute("routeId200", "BCN", "VLC", 10);
+        Assert.assertNull(shippingLine.getAllPairsRoutesFailure());
+        Assert.assertNull(shippingLine.updateAllPairsRoutes());
+        Assert.assertNotNull(shippingLine.getAllPairsRoutesFailure());
+        shippingLine.disableAllPairsRoutes();
+    }
+
+    @Test
+    public void contractionHierarchyTest() throws DSException {
+        ShippingLinePR2Impl shippingLine = (ShippingLinePR2Impl) theShippingLine;
+        Assert.assertFalse(shippingLine.isContractionHierarchyEnabled());
+
+        shippingLine.enableContractionHierarchy();
+        Assert.assertTrue(shippingLine.isContractionHierarchyEnabled());
+
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+        Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+        Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestKmsRoute("ATH", "DBK"));
+
+        // The hierarchy is built again after the ports network changes
+        theShippingLine.addPort("ZAD", "Zadar", "http://image24", "description24");
+        theShippingLine.addRoute("routeId100", "ATH", "ZAD", 900);
+        theShippingLine.addRoute("routeId101", "ZAD", "DBK", 250);
+        it = theShippingLine.getBestKmsRoute("ATH", "DBK");
+        Assert.assertEquals("Atenas-Zadar", it.next().toString());
+        Assert.assertEquals("Zadar-Dubrovnik", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        shippingLine.disableContractionHierarchy();
+        Assert.assertFalse(shippingLine.isContractionHierarchyEnabled());
+        Assert.assertEquals("Atenas-Zadar", theShippingLine.getBestKmsRoute("ATH", "DBK").next().toString());
+    }
+
+    @Test
+    public void getBestRoutesTest() throws DSException {
+        RouteBatch batch = theShippingLine.getBestRoutes(new RouteBatch.Query[]{
+                new RouteBatch.Query("BCN", "VLC", RouteCache.QueryType.KMS),
+                new RouteBatch.Query("BCN", "VLC", RouteCache.QueryType.PORTS),
+                new RouteBatch.Query("BCN", "RAP", RouteCache.QueryType.KMS),
+                new RouteBatch.Query("ATH", "DBK", RouteCache.QueryType.KMS),
+                new RouteBatch.Query("XXX", "VLC", RouteCache.QueryType.KMS),
+                new RouteBatch.Query("BCN", "BCN", RouteCache.QueryType.PORTS)
+        });
+        Assert.assertEquals(6, batch.size());
+
+        Iterator<Route> it = batch.route(0).values();
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+        Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+        Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        it = batch.route(1).values();
+        Iterator<Route> expected = theShippingLine.getBestPortsRoute("BCN", "VLC");
+        while (expected.hasNext()) {
+            Assert.assertSame(expected.next(), it.next());
+        }
+        Assert.assertFalse(it.hasNext());
+
+        Assert.assertEquals(2, batch.route(2).size());
+        Assert.assertTrue(batch.route(3).isEmpty());
+        Assert.assertNull(batch.route(4));
+        Assert.assertNull(batch.route(5));
+
+        // BCN by kms, BCN by ports and ATH by kms
+        RouteBatch.Stats stats = batch.getStats();
+        Assert.assertEquals(6, stats.queries());
+        Assert.assertEquals(3, stats.searches());
+        Assert.assertTrue(stats.throughput() > 0);
+
+        Assert.assertEquals(0, theShippingLine.getBestRoutes(new RouteBatch.Query[0]).getStats().searches());
+    }
+
+    @Test
+    public void hubPortsTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.addHubPort("XXX"));
+
+        ShippingLinePR2Impl shippingLine = (ShippingLinePR2Impl) theShippingLine;
+        Assert.assertNull(shippingLine.getHubDistances());
+        theShippingLine.addHubPort("BCN");
+        Assert.assertTrue(shippingLine.getHubDistances().isHub(theShippingLine.getPort("BCN")));
+
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+        Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+        Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+        long settledPorts = shippingLine.getHubDistances().getSettledPorts();
+
+        // Moving a route repairs the tree of the hub, and its new kms are kept
+        theShippingLine.addRoute("routeId11", "BCN", "VLC", 50);
+        Assert.assertEquals(50, theShippingLine.getRoute("routeId11").getKms(), 0);
+        Assert.assertEquals(50, shippingLine.getHubDistances()
+                .distance(theShippingLine.getPort("BCN"), theShippingLine.getPort("VLC")), 0);
+        it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Assert.assertEquals("Barcelona-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+        Assert.assertTrue(shippingLine.getHubDistances().getSettledPorts() - settledPorts
+                < theShippingLine.numPorts());
+
+        theShippingLine.removeHubPort("BCN");
+        Assert.assertFalse(shippingLine.getHubDistances().isHub(theShippingLine.getPort("BCN")));
+        Assert.assertEquals("Barcelona-Valencia", theShippingLine.getBestKmsRoute("BCN", "VLC").next().toString());
+    }
+
+    @Test
+    public void renamedPortRoutesTest() throws DSException {
+        // Routes find the vertex of a port by its ordinal, so renaming it does not lose it
+        theShippingLine.addPort("VLC", "València", "http://image", "Port of València");
+        theShippingLine.addRoute("routeId200", "BCN", "VLC", 10);
+
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Assert.assertEquals("Barcelona-València", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+        Assert.assertTrue(theShippingLine.existsRouteBetween("BCN", "VLC"));
+    }
+
+    @Test
+    public void moreShipsThanMaxTest() {
+        // The fleet grows beyond its initial capacity
+        int numShips = theShippingLine.numShips();
+        for (int i = 0; i < 2 * ShippingLine.MAX_NUM_SHIPS; i++) {
+            theShippingLine.addShip("extraShip" + i, "Extra ship " + i, 10, 2, 2, 2, 10);
+        }
+        Assert.assertEquals(numShips + 2 * ShippingLine.MAX_NUM_SHIPS, theShippingLine.numShips());
+        Assert.assertEquals("Extra ship 42", theShippingLine.getShip("extraShip42").getName());
+
+        theShippingLine.addShip("extraShip42", "Renamed ship", 10, 2, 2, 2, 10);
+        Assert.assertEquals("Renamed ship", theShippingLine.getShip("extraShip42").getName());
+        Assert.assertEquals(numShips + 2 * ShippingLine.MAX_NUM_SHIPS, theShippingLine.numShips());
+        Assert.assertNull(theShippingLine.getShip("extraShip50"));
+    }
+
+    @Test
+    public void moreCategoriesThanInitialCapacityTest() {
+        // The categories grow beyond their initial capacity of 16
+        int numCategories = theShippingLine.numCategories();
+        for (int i = 0; i < 100; i++) {
+            theShippingLine.addCategory("extraCategory" + i, "Extra category " + i);
+        }
+        Assert.assertEquals(numCategories + 100, theShippingLine.numCategories());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("Extra category " + i, theShippingLine.getCategory("extraCategory" + i).getName());
+        }
+
+        theShippingLine.addCategory("extraCategory42", "Renamed category");
+        Assert.assertEquals("Renamed category", theShippingLine.getCategory("extraCategory42").getName());
+        Assert.assertEquals(numCategories + 100, theShippingLine.numCategories());
+        Assert.assertNull(theShippingLine.getCategory("extraCategory100"));
+    }
+
+    @Test
+    public void manyClientReservationsTest() throws DSException {
+        // Reservations are found by voyage ID, and still returned in the order they were made
+        String[] clients = {"clientId1"};
+        for (int i = 0; i < 100; i++) {
+            theShippingLine.addVoyage("manyVoyagesId" + i, DateUtils.createDate("30-07-2024 22:50:00"),
+                    DateUtils.createDate("31-07-2024 15:50:00"), "shipId1", "routeId1");
+            theShippingLine.reserve(clients, "manyVoyagesId" + i, ShippingLine.AccommodationType.ARMCHAIR, null, 200);
+        }
+        Assert.assertThrows(ReservationAlreadyExistsException.class, () ->
+                theShippingLine.reserve(clients, "manyVoyagesId42", ShippingLine.AccommodationType.ARMCHAIR, null, 200));
+
+        Iterator<Reservation> it = theShippingLine.getClientReservations("clientId1");
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("manyVoyagesId" + i, it.next().getVoyage().getId());
+        }
+        Assert.assertFalse(it.hasNext());
+
+        theShippingLine.load("clientId1", "manyVoyagesId42", DateUtils.createDate("30-07-2024 08:50:00"));
+        Assert.assertThrows(LoadingAlreadyException.class, () ->
+                theShippingLine.load("clientId1", "manyVoyagesId42", DateUtils.createDate("30-07-2024 08:55:00")));
+        Assert.assertThrows(ReservationNotFoundException.class, () ->
+                theShippingLine.load("clientId1", "voyageId1", DateUtils.createDate("30-07-2024 08:50:00")));
+    }
+
+    @Test
+    public void menuByCategoryTest() throws DSException {
+        // voyageId1 sails on shipId4, whose menu has P1 and P2 (V) and P3 (F)
+        linkProductTest();
+        Iterator<Product> it = theShippingLine.getVoyageProductsByCategory("voyageId1", "V");
+        Assert.assertEquals("P1", it.next().getId());
+        Assert.assertEquals("P2", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+
+        // A product moved to another category is moved in the menus that have it
+        theShippingLine.addProduct("P2", "Pear", "Sant Joan", "F");
+        it = theShippingLine.getVoyageProductsByCategory("voyageId1", "F");
+        Assert.assertEquals("P3", it.next().getId());
+        Assert.assertEquals("P2", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+        it = theShippingLine.getVoyageProductsByCategory("voyageId1", "V");
+        Assert.assertEquals("P1", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+
+        theShippingLine.unlinkProduct("P1", "shipId4");
+        Assert.assertThrows(NoProductsException.class, () ->
+                theShippingLine.getVoyageProductsByCategory("voyageId1", "V"));
+        Assert.assertThrows(ProductNotInMenuException.class, () ->
+                theShippingLine.unlinkProduct("P1", "shipId4"));
+        Assert.assertEquals(2, theShippingLine.numProductsByShip("shipId4"));
+
+        theShippingLine.linkProduct("P1", "shipId4");
+        Assert.assertThrows(ProductAlreadyOnMenuException.class, () ->
+                theShippingLine.linkProduct("P1", "shipId4"));
+        it = theShippingLine.getShip("shipId4").products();
+        Assert.assertEquals("P2", it.next().getId());
+        Assert.assertEquals("P3", it.next().getId());
+        Assert.assertEquals("P1", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void getVoyageStatsTest() throws DSException {
+        Assert.assertThrows(VoyageNotFoundException.class, () ->
+                theShippingLine.getVoyageStats("XXXX"));
+        Assert.assertEquals(0, theShippingLine.numOrders("XXXX"));
+
+        // voyageId1 has 8 orders of 25.3, and the first 3 have been served
+        serveOrderTest();
+        Voyage.Stats stats = theShippingLine.getVoyageStats("voyageId1");
+        Assert.assertEquals(5, stats.pendingOrders());
+        Assert.assertEquals(3, stats.servedOrders());
+        Assert.assertEquals(8, stats.totalOrders());
+        Assert.assertEquals(8 * 25.3, stats.revenue(), 1e-9);
+        Assert.assertEquals(3 * 25.3, stats.servedRevenue(), 1e-9);
+        Assert.assertEquals(8, theShippingLine.numOrders("voyageId1"));
+
+        Assert.assertEquals(new Voyage.Stats(0, 0, 0, 0, 0), theShippingLine.getVoyageStats("voyageId2"));
+        Assert.assertEquals(0, theShippingLine.numOrders("voyageId2"));
+    }
+
+    @Test
+    public void getShortestPathTreeTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getShortestPathTree("XXX"));
+
+        ShortestPathTree tree = theShippingLine.getShortestPathTree("BCN");
+        Port bcn = theShippingLine.getPort("BCN");
+        Port vlc = theShippingLine.getPort("VLC");
+        Assert.assertSame(bcn, tree.getSource());
+
+        Assert.assertTrue(tree.isReachable(vlc));
+        Assert.assertEquals(338, tree.distance(vlc), 0);
+        Iterator<Route> it = tree.bestKmsRoute(vlc).values();
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+        Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+        Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+        Assert.assertFalse(it.hasNext());
+
+        Assert.assertEquals(0, tree.distance(bcn), 0);
+        Assert.assertTrue(tree.bestKmsRoute(bcn).isEmpty());
+
+        // Every reachable port has the same best route as getBestKmsRoute, from the nearest to the farthest
+        int count = 0;
+        double previous = 0;
+        Iterator<Port> ports = tree.reachablePorts();
+        while (ports.hasNext()) {
+            Port port = ports.next();
+            Assert.assertTrue(tree.distance(port) >= previous);
+            previous = tree.distance(port);
+
+            Iterator<Route> expected = theShippingLine.getBestKmsRoute("BCN", port.getId());
+            Iterator<Route> result = tree.bestKmsRoute(port).values();
+            while (expected.hasNext()) {
+                Assert.assertSame(expected.next(), result.next());
+            }
+            Assert.assertFalse(result.hasNext());
+            count++;
+        }
+        Assert.assertEquals(tree.numReachablePorts(), count);
+
+        Port dbk = theShippingLine.getPort("DBK");
+        tree = theShippingLine.getShortestPathTree("ATH");
+        Assert.assertFalse(tree.isReachable(dbk));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, tree.distance(dbk), 0);
+        Assert.assertTrue(tree.bestKmsRoute(dbk).isEmpty());
+    }
 
+    @Test
+    public void getPortsWithinKmsTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getPortsWithinKms("XXX", 500));
+        Assert.assertThrows(IllegalArgumentException.class, () ->
+                theShippingLine.getPortsWithinKms("BCN", -1));
+
+        Iterator<KeyValue<Port, Double>> it = theShippingLine.getPortsWithinKms("BCN", 169);
+        KeyValue<Port, Double> next = it.next();
+        Assert.assertEquals("TARR", next.getKey().getId());
+        Assert.assertEquals(100, next.getValue(), 0);
+        next = it.next();
+        Assert.assertEquals("DBK", next.getKey().getId());
+        Assert.assertEquals(164, next.getValue(), 0);
+        next = it.next();
+        Assert.assertEquals("RAP", next.getKey().getId());
+        Assert.assertEquals(169, next.getValue(), 0);
+        Assert.assertFalse(it.hasNext());
+
+        // Same ports and kms as the shortest path tree, up to the budget
+        ShortestPathTree tree = theShippingLine.getShortestPathTree("BCN");
+        int count = 0;
+        it = theShippingLine.getPortsWithinKms("BCN", 1000);
+        while (it.hasNext()) {
+            next = it.next();
+            Assert.assertEquals(tree.distance(next.getKey()), next.getValue(), 0);
+            count++;
+        }
+        Iterator<Port> ports = tree.reachablePorts();
+        while (ports.hasNext()) {
+            count -= tree.distance(ports.next()) <= 1000 ? 1 : 0;
+        }
+        Assert.assertEquals(0, count);
+
+        Assert.assertFalse(theShippingLine.getPortsWithinKms("BCN", 0).hasNext());
+    }
+
+    @Test
+    public void getKBestKmsRoutesTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getKBestKmsRoutes("XXX", "VLC", 3));
+        Assert.assertThrows(DstPortNotFoundException.class, () ->
+                theShippingLine.getKBestKmsRoutes("BCN", "XXX", 3));
+        Assert.assertThrows(SamePortException.class, () ->
+                theShippingLine.getKBestKmsRoutes("BCN", "BCN", 3));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getKBestKmsRoutes("ATH", "DBK", 3));
+        Assert.assertThrows(IllegalArgumentException.class, () ->
+                theShippingLine.getKBestKmsRoutes("BCN", "VLC", 0));
+
+        // The first alternative is the best route, the next ones are never shorter
+        Iterator<List<Route>> it = theShippingLine.getKBestKmsRoutes("BCN", "VLC", 5);
+        Iterator<Route> expected = theShippingLine.getBestKmsRoute("BCN", "VLC");
+        Iterator<Route> best = it.next().values();
+        while (expected.hasNext()) {
+            Assert.assertSame(expected.next(), best.next());
+        }
+        Assert.assertFalse(best.hasNext());
+
+        double previous = 338;
+        int count = 1;
+        while (it.hasNext()) {
+            double kms = 0;
+            Iterator<Route> routes = it.next().values();
+            while (routes.hasNext()) {
+                kms += routes.next().getKms();
+            }
+            Assert.assertTrue(kms >= previous);
+            previous = kms;
+            count++;
+        }
+        Assert.assertTrue(count <= 5);
+    }
+
+    @Test
+    public void getParetoRoutesTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getParetoRoutes("XXX", "VLC"));
+        Assert.assertThrows(DstPortNotFoundException.class, () ->
+                theShippingLine.getParetoRoutes("BCN", "XXX"));
+        Assert.assertThrows(SamePortException.class, () ->
+                theShippingLine.getParetoRoutes("BCN", "BCN"));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getParetoRoutes("ATH", "DBK"));
+
+        // From the best route based on the distance to the best one based on the number of ports
+        Iterator<List<Route>> it = theShippingLine.getParetoRoutes("BCN", "VLC");
+        double previousKms = 0;
+        int previousPorts = Integer.MAX_VALUE;
+        List<Route> routes = null;
+        while (it.hasNext()) {
+            routes = it.next();
+            double kms = 0;
+            Iterator<Route> routesIt = routes.values();
+            while (routesIt.hasNext()) {
+                kms += routesIt.next().getKms();
+            }
+            if (previousKms == 0) {
+                Assert.assertEquals(338, kms, 0);
+            }
+            Assert.assertTrue(kms > previousKms);
+            Assert.assertTrue(routes.size() < previousPorts);
+            previousKms = kms;
+            previousPorts = routes.size();
+        }
+
+        int ports = 0;
+        Iterator<Route> best = theShippingLine.getBestPortsRoute("BCN", "VLC");
+        while (best.hasNext()) {
+            best.next();
+            ports++;
+        }
+        Assert.assertEquals(ports, routes.size());
+    }
+
+    @Test
+    public void getEarliestArrivalItineraryTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("XXX", "TUN", DateUtils.createDate("30-07-2024 00:00:00")));
+        Assert.assertThrows(DstPortNotFoundException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("ATH", "XXX", DateUtils.createDate("30-07-2024 00:00:00")));
+        Assert.assertThrows(SamePortException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("ATH", "ATH", DateUtils.createDate("30-07-2024 00:00:00")));
+
+        Iterator<Voyage> it = theShippingLine.getEarliestArrivalItinerary("ROME", "TUN",
+                DateUtils.createDate("30-07-2024 00:00:00"));
+        Assert.assertEquals("voyageId2", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+
+        // The voyages from ROME leave before arriving from ATH
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("ATH", "TUN", DateUtils.createDate("30-07-2024 00:00:00")));
+
+        theShippingLine.addVoyage("voyageId100", DateUtils.createDate("31-07-2024 16:00:00"),
+                DateUtils.createDate("02-08-2024 10:00:00"), "shipId2", "routeId2");
+        theShippingLine.addVoyage("voyageId101", DateUtils.createDate("01-08-2024 10:00:00"),
+                DateUtils.createDate("01-08-2024 20:00:00"), "shipId3", "routeId2");
+
+        it = theShippingLine.getEarliestArrivalItinerary("ATH", "TUN", DateUtils.createDate("30-07-2024 00:00:00"));
+        Assert.assertEquals("voyageId1", it.next().getId());
+        Assert.assertEquals("voyageId101", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("ATH", "TUN", DateUtils.createDate("31-07-2024 00:00:00")));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getEarliestArrivalItinerary("TUN", "ROME", DateUtils.createDate("30-07-2024 00:00:00")));
+    }
+
+    @Test
+    public void getBestKmsRouteAlgorithmTest() throws DSException {
+        Assert.assertThrows(SrcPortNotFoundException.class, () ->
+                theShippingLine.getBestKmsRoute("XXX", "VLC", ShippingLinePR2.KmsAlgorithm.A_STAR));
+        Assert.assertThrows(NoRouteException.class, () ->
+                theShippingLine.getBestKmsRoute("ATH", "DBK", ShippingLinePR2.KmsAlgorithm.A_STAR));
+
+        for (ShippingLinePR2.KmsAlgorithm algorithm : ShippingLinePR2.KmsAlgorithm.values()) {
+            Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC", algorithm);
+            Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+            Assert.assertEquals("Tarragona-La Ràpita", it.next().toString());
+            Assert.assertEquals("La Ràpita-Valencia", it.next().toString());
+            Assert.assertFalse(it.hasNext());
+        }
+
+        // Coordinates only guide the search when every port has them
+        theShippingLine.addPort("BCN", "Barcelona", "image.com", "Port of Barcelona", 41.35, 2.17);
+        Assert.assertEquals(41.35, theShippingLine.getPort("BCN").getLatitude(), 0);
+        Assert.assertTrue(theShippingLine.getPort("BCN").hasCoordinates());
+        Assert.assertFalse(theShippingLine.getPort("VLC").hasCoordinates());
+
+        Iterator<Route> it = theShippingLine.getBestKmsRoute("BCN", "VLC", ShippingLinePR2.KmsAlgorithm.A_STAR);
+        Assert.assertEquals("Barcelona-Tarragona", it.next().toString());
+    }
 }
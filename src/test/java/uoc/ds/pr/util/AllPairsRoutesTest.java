@@ -0,0 +1,80 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+public class AllPairsRoutesTest {
+
+    @Test
+    public void bestKmsRouteTest() {
+        NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(40, 120, 500, 11L));
+        AllPairsRoutes allPairs = new AllPairsRoutes(network, 3);
+        Assert.assertEquals(3, allPairs.getVersion());
+
+        for (int i = 0; i < network.numPorts(); i++) {
+            for (int j = 0; j < network.numPorts(); j++) {
+                Port src = network.port(i);
+                Port dst = network.port(j);
+                Assert.assertTrue(allPairs.contains(src, dst));
+
+                var expected = GraphUtils.bestKmsRoute(network, src, dst);
+                var result = allPairs.bestKmsRoute(src, dst);
+                Assert.assertEquals(i == j ? 0 : expected.size(), result.size());
+
+                var expectedIt = expected.values();
+                var it = result.values();
+                while (it.hasNext()) {
+                    Assert.assertSame(expectedIt.next(), it.next());
+                }
+
+                if (i != j && result.isEmpty()) {
+                    Assert.assertEquals(Double.POSITIVE_INFINITY, allPairs.distance(src, dst), 0);
+                } else {
+                    Assert.assertEquals(TestNetworks.checkRoute(src, dst, result), allPairs.distance(src, dst), 0);
+                }
+            }
+        }
+
+        Assert.assertFalse(allPairs.contains(network.port(0), new Port("X", "image.com", "Port X", "Port X")));
+    }
+
+    @Test
+    public void movedRouteTest() {
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        var a = graph.newVertex(new Port("A", "image.com", "Port A", "Port A"));
+        var b = graph.newVertex(new Port("B", "image.com", "Port B", "Port B"));
+        var c = graph.newVertex(new Port("C", "image.com", "Port C", "Port C"));
+        var d = graph.newVertex(new Port("D", "image.com", "Port D", "Port D"));
+        Route ab = new Route("AB", a.getValue(), b.getValue(), 10);
+        graph.newEdge(a, b).setLabel(ab);
+        graph.newEdge(b, c).setLabel(new Route("BC", b.getValue(), c.getValue(), 10));
+        graph.newEdge(a, c).setLabel(new Route("AC", a.getValue(), c.getValue(), 50));
+
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        AllPairsRoutes allPairs = new AllPairsRoutes(network, 0);
+        Assert.assertEquals(2, allPairs.bestKmsRoute(a.getValue(), c.getValue()).size());
+
+        // Best routes through a route moved to other ports are no longer valid
+        ab.update(a.getValue(), d.getValue(), 10);
+        Assert.assertNull(allPairs.bestKmsRoute(a.getValue(), c.getValue()));
+        Assert.assertNull(allPairs.bestKmsRoute(a.getValue(), b.getValue()));
+        Assert.assertEquals(1, allPairs.bestKmsRoute(b.getValue(), c.getValue()).size());
+    }
+
+    @Test
+    public void maxPortsTest() {
+        Assert.assertTrue((long) AllPairsRoutes.MAX_PORTS * AllPairsRoutes.MAX_PORTS * AllPairsRoutes.BYTES_PER_PAIR
+                <= AllPairsRoutes.MAX_BYTES);
+
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        for (int i = 0; i <= AllPairsRoutes.MAX_PORTS; i++) {
+            graph.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i));
+        }
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        Assert.assertThrows(IllegalArgumentException.class, () -> new AllPairsRoutes(network, 0));
+    }
+}
@@ -0,0 +1,53 @@
+package uoc.ds.pr.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+public class ContractionHierarchyTest {
+
+    @Test
+    public void bestKmsRouteTest() {
+        for (long seed = 0; seed < 5; seed++) {
+            NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(60, 200, 500, seed));
+            ContractionHierarchy hierarchy = new ContractionHierarchy(network);
+            Assert.assertSame(network, hierarchy.getNetwork());
+            Assert.assertTrue(hierarchy.numShortcuts() >= 0);
+
+            for (int i = 0; i < network.numPorts(); i++) {
+                for (int j = 0; j < network.numPorts(); j++) {
+                    Port src = network.port(i);
+                    Port dst = network.port(j);
+                    var expected = GraphUtils.bestKmsRoute(network, src, dst);
+                    var result = hierarchy.bestKmsRoute(src, dst);
+                    Assert.assertEquals(expected.isEmpty(), result.isEmpty());
+                    if (result.isEmpty()) {
+                        continue;
+                    }
+
+                    // Consecutive routes of the original network, as short as the one found by Dijkstra
+                    var it = result.values();
+                    while (it.hasNext()) {
+                        Route route = it.next();
+                        Assert.assertSame(route, network.route(route(network, route)));
+                    }
+                    Assert.assertEquals(TestNetworks.kms(expected), TestNetworks.checkRoute(src, dst, result), 1e-9);
+                }
+            }
+
+            Assert.assertTrue(hierarchy.bestKmsRoute(network.port(0),
+                    new Port("X", "image.com", "Port X", "Port X")).isEmpty());
+        }
+    }
+
+    private static int route(NetworkSnapshot network, Route route) {
+        int port = network.ordinal(route.getSrcPort());
+        for (int i = network.firstRoute(port); i < network.lastRoute(port); i++) {
+            if (network.route(i) == route) {
+                return i;
+            }
+        }
+        return GraphUtils.NO_ROUTE;
+    }
+}
@@ -0,0 +1,110 @@
+package uoc.ds.pr.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DSArrayTest {
+
+    @Test
+    public void growTest() {
+        DSArray<Integer> array = new DSArray<>(2);
+        for (int i = 0; i < 1000; i++) {
+            array.put("K" + i, i);
+        }
+        Assert.assertEquals(1000, array.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(Integer.valueOf(i), array.get("K" + i));
+        }
+        Assert.assertNull(array.get("K1000"));
+
+        array.update("K42", -42);
+        array.update("K1000", -1000);
+        Assert.assertEquals(Integer.valueOf(-42), array.get("K42"));
+        Assert.assertNull(array.get("K1000"));
+        Assert.assertEquals(1000, array.size());
+
+        // Values are returned in insertion order
+        var it = array.values();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(it.hasNext());
+            Assert.assertEquals(Integer.valueOf(i == 42 ? -42 : i), it.next());
+        }
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void putExistingKeyTest() {
+        DSArray<String> array = new DSArray<>(2);
+        array.put("K0", "first");
+        array.put("K1", "second");
+        array.put("K0", "third");
+        Assert.assertEquals(2, array.size());
+        Assert.assertEquals("third", array.get("K0"));
+
+        // The element keeps its position, and there is no stale entry left behind
+        var it = array.values();
+        Assert.assertEquals("third", it.next());
+        Assert.assertEquals("second", it.next());
+        Assert.assertFalse(it.hasNext());
+
+        Assert.assertEquals("third", array.delete("K0"));
+        Assert.assertNull(array.get("K0"));
+        Assert.assertEquals(1, array.size());
+    }
+
+    @Test
+    public void collisionsTest() {
+        // "Aa" and "BB" have the same hash code
+        DSArray<String> array = new DSArray<>(1);
+        array.put("Aa", "first");
+        array.put("BB", "second");
+        array.put("AaAa", "third");
+        array.put("BBBB", "fourth");
+        Assert.assertEquals("first", array.get("Aa"));
+        Assert.assertEquals("second", array.get("BB"));
+        Assert.assertEquals("third", array.get("AaAa"));
+        Assert.assertEquals("fourth", array.get("BBBB"));
+        Assert.assertNull(array.get("AaBB"));
+    }
+
+    @Test
+    public void deleteTest() {
+        DSArray<Integer> array = new DSArray<>(2);
+        for (int i = 0; i < 1000; i++) {
+            array.put("K" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            Assert.assertEquals(Integer.valueOf(i), array.delete("K" + i));
+        }
+        Assert.assertNull(array.delete("K0"));
+        Assert.assertNull(array.delete("K1000"));
+        Assert.assertEquals(666, array.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i % 3 == 0 ? null : Integer.valueOf(i), array.get("K" + i));
+        }
+
+        // Deleted keys can be added again
+        array.put("K0", 0);
+        Assert.assertEquals(Integer.valueOf(0), array.get("K0"));
+        Assert.assertEquals(667, array.size());
+
+        int count = 0;
+        var it = array.values();
+        while (it.hasNext()) {
+            int value = it.next();
+            Assert.assertTrue(value == 0 || value % 3 != 0);
+            count++;
+        }
+        Assert.assertEquals(667, count);
+
+        // Collisions in the probe sequence of a deleted key
+        DSArray<String> collisions = new DSArray<>(1);
+        collisions.put("Aa", "first");
+        collisions.put("BB", "second");
+        collisions.put("AaAa", "third");
+        Assert.assertEquals("first", collisions.delete("Aa"));
+        Assert.assertEquals("second", collisions.get("BB"));
+        Assert.assertEquals("third", collisions.get("AaAa"));
+        Assert.assertNull(collisions.get("Aa"));
+    }
+}
@@ -2,12 +2,14 @@ package uoc.ds.pr.util;
 
 import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
 import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
 import edu.uoc.ds.adt.sequential.List;
 import org.junit.Before;
 import org.junit.Test;
 import uoc.ds.pr.model.Port;
 import uoc.ds.pr.model.Route;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,6 +50,21 @@ public class GraphUtilsTest {
         assertFalse(GraphUtils.existConnection(graph, ports.get("E"), ports.get("B")));
     }
 
+    @Test
+    public void testExistConnectionLongChain() {
+        DirectedGraph<Port, Route> chain = new DirectedGraphImpl<>();
+        var first = chain.newVertex(new Port("P0", "image.com", "Port 0", "Port 0"));
+        var previous = first;
+        for (int i = 1; i < 5000; i++) {
+            var current = chain.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i));
+            chain.newEdge(previous, current).setLabel(new Route("R" + i, previous.getValue(), current.getValue(), 1D));
+            previous = current;
+        }
+
+        assertTrue(GraphUtils.existConnection(chain, first.getValue(), previous.getValue()));
+        assertFalse(GraphUtils.existConnection(chain, previous.getValue(), first.getValue()));
+    }
+
     @Test
     public void testBestPortRoute() {
         List<Route> result = GraphUtils.bestPortRoute(graph, ports.get("C"), ports.get("B"));
@@ -61,6 +78,33 @@ public class GraphUtilsTest {
         assertFalse(it.hasNext());
     }
 
+    @Test
+    public void testBestPortRouteMesh() {
+        // Every port is connected with its neighbours in both directions and with the port after the next one
+        DirectedGraph<Port, Route> mesh = new DirectedGraphImpl<>();
+        var vertexes = new ArrayList<Vertex<Port>>();
+        for (int i = 0; i < 41; i++) {
+            vertexes.add(mesh.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i)));
+        }
+        for (int i = 0; i < 40; i++) {
+            var src = vertexes.get(i);
+            var next = vertexes.get(i + 1);
+            mesh.newEdge(src, next).setLabel(new Route(i + "-" + (i + 1), src.getValue(), next.getValue(), 1D));
+            mesh.newEdge(next, src).setLabel(new Route((i + 1) + "-" + i, next.getValue(), src.getValue(), 1D));
+            if (i + 2 < 41) {
+                var jump = vertexes.get(i + 2);
+                mesh.newEdge(src, jump).setLabel(new Route(i + "-" + (i + 2), src.getValue(), jump.getValue(), 1D));
+            }
+        }
+
+        List<Route> result = GraphUtils.bestPortRoute(mesh, vertexes.get(0).getValue(), vertexes.get(40).getValue());
+        assertEquals(20, result.size());
+        var it = result.values();
+        for (int i = 0; i < 40; i += 2) {
+            assertEquals(i + "-" + (i + 2), it.next().getId());
+        }
+    }
+
     @Test
     public void testBestKmsRoute() {
         List<Route> result = GraphUtils.bestKmsRoute(graph, ports.get("C"), ports.get("B"));
@@ -74,4 +118,88 @@ public class GraphUtilsTest {
         assertEquals("D-E", it.next().getId());
         assertFalse(it.hasNext());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBestKmsRouteCycles() {
+        // E-A closes a cycle, and reaching D through B is cheaper than the direct A-D route found first
+        var portA = graph.getVertex(ports.get("A"));
+        var portB = graph.getVertex(ports.get("B"));
+        var portD = graph.getVertex(ports.get("D"));
+        var portE = graph.getVertex(ports.get("E"));
+        graph.newEdge(portE, portA).setLabel(new Route("E-A", portE.getValue(), portA.getValue(), 1D));
+        graph.newEdge(portA, portD).setLabel(new Route("A-D", portA.getValue(), portD.getValue(), 100D));
+        graph.newEdge(portB, portD).setLabel(new Route("B-D", portB.getValue(), portD.getValue(), 1D));
+
+        List<Route> result = GraphUtils.bestKmsRoute(graph, ports.get("E"), ports.get("D"));
+        var it = result.values();
+        assertEquals("E-A", it.next().getId());
+        assertEquals("A-C", it.next().getId());
+        assertEquals("C-D", it.next().getId());
+        assertFalse(it.hasNext());
+
+        result = GraphUtils.bestKmsRoute(graph, ports.get("B"), ports.get("C"));
+        it = result.values();
+        assertEquals("B-D", it.next().getId());
+        assertEquals("D-E", it.next().getId());
+        assertEquals("E-A", it.next().getId());
+        assertEquals("A-C", it.next().getId());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testBestKmsRouteAStar() {
+        // Without coordinates it finds the same routes as Dijkstra's algorithm
+        List<Route> result = GraphUtils.bestKmsRouteAStar(graph, ports.get("A"), ports.get("E"));
+        var it = result.values();
+        assertEquals("A-C", it.next().getId());
+        assertEquals("C-D", it.next().getId());
+        assertEquals("D-E", it.next().getId());
+        assertFalse(it.hasNext());
+        assertTrue(GraphUtils.bestKmsRouteAStar(graph, ports.get("C"), ports.get("B")).isEmpty());
+
+        NetworkSnapshot snapshot = new NetworkSnapshot(TestNetworks.mediterraneanNetwork(13L));
+        assertTrue(snapshot.hasCoordinates());
+        for (int i = 0; i < snapshot.numPorts(); i++) {
+            for (int j = 0; j < snapshot.numPorts(); j++) {
+                Port src = snapshot.port(i);
+                Port dst = snapshot.port(j);
+                double expected = TestNetworks.kms(GraphUtils.bestKmsRoute(snapshot, src, dst));
+                double kms = TestNetworks.kms(GraphUtils.bestKmsRouteAStar(snapshot, src, dst));
+                assertEquals(expected, kms, 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testBestKmsRouteBidirectional() {
+        List<Route> result = GraphUtils.bestKmsRouteBidirectional(graph, ports.get("A"), ports.get("E"));
+        var it = result.values();
+        assertEquals("A-C", it.next().getId());
+        assertEquals("C-D", it.next().getId());
+        assertEquals("D-E", it.next().getId());
+        assertFalse(it.hasNext());
+        assertTrue(GraphUtils.bestKmsRouteBidirectional(graph, ports.get("C"), ports.get("B")).isEmpty());
+        assertTrue(GraphUtils.bestKmsRouteBidirectional(graph, ports.get("A"), ports.get("A")).isEmpty());
+
+        NetworkSnapshot snapshot = new NetworkSnapshot(TestNetworks.mediterraneanNetwork(17L));
+        for (int i = 0; i < snapshot.numPorts(); i++) {
+            for (int j = 0; j < snapshot.numPorts(); j++) {
+                Port src = snapshot.port(i);
+                Port dst = snapshot.port(j);
+                List<Route> expected = GraphUtils.bestKmsRoute(snapshot, src, dst);
+                List<Route> routes = GraphUtils.bestKmsRouteBidirectional(snapshot, src, dst);
+                assertEquals(TestNetworks.kms(expected), TestNetworks.kms(routes), 1e-6);
+
+                // Consecutive routes from the source to the destination
+                Port current = src;
+                var routesIt = routes.values();
+                while (routesIt.hasNext()) {
+                    Route route = routesIt.next();
+                    assertEquals(current, route.getSrcPort());
+                    current = route.getDstPort();
+                }
+                assertEquals(expected.isEmpty() ? src : dst, current);
+            }
+        }
+    }
+}
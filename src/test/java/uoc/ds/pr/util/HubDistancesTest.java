@@ -0,0 +1,146 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+public class HubDistancesTest {
+
+    @Test
+    public void updatesTest() {
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        PortRegistry registry = new PortRegistry();
+        HubDistances hubDistances = new HubDistances(registry, graph);
+        var ports = new ArrayList<Port>();
+        for (int i = 0; i < 30; i++) {
+            addPort(graph, registry, ports);
+        }
+        var routes = new ArrayList<Route>();
+        Random random = new Random(13L);
+        for (int i = 0; i < 80; i++) {
+            addRoute(graph, registry, hubDistances, routes, ports, random, i);
+        }
+
+        hubDistances.addHub(ports.get(0));
+        hubDistances.addHub(ports.get(7));
+        hubDistances.addHub(ports.get(7));
+        Assert.assertEquals(2, hubDistances.numHubs());
+        assertTrees(hubDistances, ports, routes);
+
+        for (int i = 0; i < 300; i++) {
+            switch (random.nextInt(4)) {
+                // New route
+                case 0 -> addRoute(graph, registry, hubDistances, routes, ports, random, 80 + i);
+                // Moved route
+                case 1 -> {
+                    Route route = routes.get(random.nextInt(routes.size()));
+                    var src = registry.vertex(ports.get(random.nextInt(ports.size())));
+                    var dst = registry.vertex(ports.get(random.nextInt(ports.size())));
+                    if (src != dst && graph.getEdge(src, dst) == null) {
+                        Port previousDst = route.getDstPort();
+                        graph.deleteEdge(graph.getEdge(registry.vertex(route.getSrcPort()),
+                                registry.vertex(previousDst)));
+                        route.update(src.getValue(), dst.getValue(), route.getKms());
+                        graph.newEdge(src, dst).setLabel(route);
+                        hubDistances.updateRoute(route, previousDst);
+                    }
+                }
+                // Shorter or longer route
+                case 2 -> {
+                    Route route = routes.get(random.nextInt(routes.size()));
+                    route.update(route.getSrcPort(), route.getDstPort(), 1 + random.nextInt(300));
+                    hubDistances.updateRoute(route, route.getDstPort());
+                }
+                // New port, connected later
+                default -> addPort(graph, registry, ports);
+            }
+            assertTrees(hubDistances, ports, routes);
+        }
+
+        hubDistances.removeHub(ports.get(0));
+        Assert.assertFalse(hubDistances.isHub(ports.get(0)));
+        Assert.assertTrue(hubDistances.isHub(ports.get(7)));
+        Assert.assertEquals(Double.POSITIVE_INFINITY,
+                hubDistances.distance(ports.get(7), new Port("X", "image.com", "Port X", "Port X")), 0);
+        Assert.assertTrue(hubDistances.bestKmsRoute(ports.get(7), ports.get(7)).isEmpty());
+
+        // Repairs settle far fewer ports than building the two trees again after every update
+        Assert.assertTrue(hubDistances.getSettledPorts() < 300L * 2 * ports.size() / 4);
+    }
+
+    private static void addPort(DirectedGraph<Port, Route> graph, PortRegistry registry, java.util.List<Port> ports) {
+        Port port = new Port("P" + ports.size(), "image.com", "Port", "Port " + ports.size());
+        ports.add(port);
+        registry.register(port, graph.newVertex(port));
+    }
+
+    private static void addRoute(DirectedGraph<Port, Route> graph, PortRegistry registry, HubDistances hubDistances,
+                                 java.util.List<Route> routes, java.util.List<Port> ports, Random random, int i) {
+        var src = registry.vertex(ports.get(random.nextInt(ports.size())));
+        var dst = registry.vertex(ports.get(random.nextInt(ports.size())));
+        if (src != dst && graph.getEdge(src, dst) == null) {
+            Route route = new Route("R" + i, src.getValue(), dst.getValue(), 1 + random.nextInt(300));
+            graph.newEdge(src, dst).setLabel(route);
+            routes.add(route);
+            hubDistances.updateRoute(route, null);
+        }
+    }
+
+    /**
+     * Compares every hub tree with the distances calculated by Bellman-Ford over the current routes
+     */
+    private static void assertTrees(HubDistances hubDistances, java.util.List<Port> ports,
+                                    java.util.List<Route> routes) {
+        for (Port hub : ports) {
+            if (!hubDistances.isHub(hub)) {
+                continue;
+            }
+            double[] expected = new double[ports.size()];
+            Arrays.fill(expected, Double.POSITIVE_INFINITY);
+            expected[ports.indexOf(hub)] = 0;
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (Route route : routes) {
+                    double distance = expected[ports.indexOf(route.getSrcPort())] + route.getKms();
+                    int dst = ports.indexOf(route.getDstPort());
+                    if (distance < expected[dst]) {
+                        expected[dst] = distance;
+                        changed = true;
+                    }
+                }
+            }
+
+            for (int i = 0; i < ports.size(); i++) {
+                Port dst = ports.get(i);
+                Assert.assertEquals(expected[i], hubDistances.distance(hub, dst), 1e-9);
+
+                // The route follows the current routes and adds up to the distance
+                List<Route> route = hubDistances.bestKmsRoute(hub, dst);
+                Port current = hub;
+                double total = 0;
+                var it = route.values();
+                while (it.hasNext()) {
+                    Route next = it.next();
+                    Assert.assertSame(current, next.getSrcPort());
+                    current = next.getDstPort();
+                    total += next.getKms();
+                }
+                if (dst != hub && expected[i] != Double.POSITIVE_INFINITY) {
+                    Assert.assertSame(dst, current);
+                    Assert.assertEquals(expected[i], total, 1e-9);
+                } else {
+                    Assert.assertTrue(route.isEmpty());
+                }
+            }
+        }
+    }
+}
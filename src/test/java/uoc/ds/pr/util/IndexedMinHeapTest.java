@@ -0,0 +1,67 @@
+package uoc.ds.pr.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedMinHeapTest {
+    IndexedMinHeap heap;
+
+    @Before
+    public void setUp() {
+        heap = new IndexedMinHeap(8);
+        heap.insert(3, 30);
+        heap.insert(1, 10);
+        heap.insert(5, 50);
+        heap.insert(0, 40);
+        heap.insert(7, 20);
+        Assert.assertEquals(5, heap.size());
+    }
+
+    @Test
+    public void deleteMinTest() {
+        Assert.assertEquals(1, heap.deleteMin());
+        Assert.assertEquals(7, heap.deleteMin());
+        Assert.assertEquals(3, heap.deleteMin());
+        Assert.assertEquals(0, heap.deleteMin());
+        Assert.assertEquals(5, heap.deleteMin());
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(5));
+        Assert.assertThrows(IllegalStateException.class, () -> heap.deleteMin());
+    }
+
+    @Test
+    public void decreaseKeyTest() {
+        heap.decreaseKey(5, 5);
+        Assert.assertEquals(5, heap.peek());
+        Assert.assertEquals(5, heap.key(5), 0);
+
+        heap.insertOrDecrease(0, 15);
+        heap.insertOrDecrease(2, 25);
+        Assert.assertEquals(6, heap.size());
+
+        Assert.assertEquals(5, heap.deleteMin());
+        Assert.assertEquals(1, heap.deleteMin());
+        Assert.assertEquals(0, heap.deleteMin());
+        Assert.assertEquals(7, heap.deleteMin());
+        Assert.assertEquals(2, heap.deleteMin());
+        Assert.assertEquals(3, heap.deleteMin());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(4, 1));
+        heap.insert(4, 1);
+        Assert.assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(4, 2));
+        Assert.assertThrows(IllegalArgumentException.class, () -> heap.insert(4, 0));
+    }
+
+    @Test
+    public void clearTest() {
+        heap.clear();
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(1));
+
+        heap.insert(1, 5);
+        heap.insert(6, 1);
+        Assert.assertEquals(6, heap.deleteMin());
+        Assert.assertEquals(1, heap.deleteMin());
+    }
+}
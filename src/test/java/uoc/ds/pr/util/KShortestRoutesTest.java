@@ -0,0 +1,61 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+public class KShortestRoutesTest {
+
+    @Test
+    public void bestKmsRoutesTest() {
+        NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(10, 35, 100, 7L));
+
+        for (int i = 0; i < network.numPorts(); i++) {
+            for (int j = 0; j < network.numPorts(); j++) {
+                Port src = network.port(i);
+                Port dst = network.port(j);
+
+                // Every loopless route, sorted by kms
+                var expected = new ArrayList<Double>();
+                TestNetworks.allRoutes(network, i, j, (kms, numRoutes) -> expected.add(kms));
+                expected.sort(Double::compare);
+                if (i == j) {
+                    expected.clear();
+                }
+
+                List<List<Route>> result = KShortestRoutes.bestKmsRoutes(network, src, dst, 10);
+                Assert.assertEquals(Math.min(10, expected.size()), result.size());
+
+                Set<String> distinct = new HashSet<>();
+                var it = result.values();
+                for (int n = 0; it.hasNext(); n++) {
+                    List<Route> routes = it.next();
+                    Assert.assertEquals(expected.get(n), TestNetworks.checkRoute(src, dst, routes), 0);
+                    Assert.assertTrue(distinct.add(toString(routes)));
+                }
+
+                if (!result.isEmpty()) {
+                    var best = GraphUtils.bestKmsRoute(network, src, dst);
+                    Assert.assertEquals(toString(best), toString(result.values().next()));
+                }
+            }
+        }
+
+        Assert.assertTrue(KShortestRoutes.bestKmsRoutes(network, network.port(0), network.port(1), 0).isEmpty());
+    }
+
+    private static String toString(List<Route> routes) {
+        StringBuilder result = new StringBuilder();
+        var it = routes.values();
+        while (it.hasNext()) {
+            result.append(it.next().getId()).append(' ');
+        }
+        return result.toString();
+    }
+}
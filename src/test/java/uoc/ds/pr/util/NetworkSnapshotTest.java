@@ -0,0 +1,120 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+public class NetworkSnapshotTest {
+    DirectedGraph<Port, Route> graph;
+    Port portA;
+    Port portB;
+    Port portC;
+
+    @Before
+    public void setUp() {
+        graph = new DirectedGraphImpl<>();
+        var vertexA = graph.newVertex(new Port("A", "image.com", "Port A", "Port A"));
+        var vertexB = graph.newVertex(new Port("B", "image.com", "Port B", "Port B"));
+        var vertexC = graph.newVertex(new Port("C", "image.com", "Port C", "Port C"));
+        portA = vertexA.getValue();
+        portB = vertexB.getValue();
+        portC = vertexC.getValue();
+
+        graph.newEdge(vertexA, vertexB).setLabel(new Route("A-B", portA, portB, 20D));
+        graph.newEdge(vertexA, vertexC).setLabel(new Route("A-C", portA, portC, 10D));
+        graph.newEdge(vertexC, vertexA).setLabel(new Route("C-A", portC, portA, 5D));
+    }
+
+    @Test
+    public void snapshotTest() {
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        Assert.assertEquals(3, network.numPorts());
+        Assert.assertEquals(3, network.numRoutes());
+
+        int a = network.ordinal(portA);
+        int b = network.ordinal(portB);
+        int c = network.ordinal(portC);
+        Assert.assertSame(portA, network.port(a));
+        Assert.assertEquals(-1, network.ordinal(new Port("X", "image.com", "Port X", "Port X")));
+
+        Assert.assertEquals(2, network.lastRoute(a) - network.firstRoute(a));
+        Assert.assertEquals(0, network.lastRoute(b) - network.firstRoute(b));
+        Assert.assertEquals(1, network.lastRoute(c) - network.firstRoute(c));
+
+        int route = network.firstRoute(c);
+        Assert.assertEquals("C-A", network.route(route).getId());
+        Assert.assertEquals(c, network.source(route));
+        Assert.assertEquals(a, network.target(route));
+        Assert.assertEquals(5D, network.kms(route), 0);
+
+        Assert.assertEquals(1, network.lastIncoming(a) - network.firstIncoming(a));
+        Assert.assertEquals("C-A", network.route(network.incoming(network.firstIncoming(a))).getId());
+        Assert.assertEquals(1, network.lastIncoming(b) - network.firstIncoming(b));
+        Assert.assertEquals("A-B", network.route(network.incoming(network.firstIncoming(b))).getId());
+        Assert.assertEquals(1, network.lastIncoming(c) - network.firstIncoming(c));
+        Assert.assertEquals("A-C", network.route(network.incoming(network.firstIncoming(c))).getId());
+    }
+
+    @Test
+    public void registrySnapshotTest() {
+        PortRegistry registry = new PortRegistry();
+        registry.register(portC, graph.getVertex(portC));
+        registry.register(portA, graph.getVertex(portA));
+        registry.register(portB, graph.getVertex(portB));
+
+        // Ordinals are the ones of the registry, and the routes the same as without it
+        NetworkSnapshot network = new NetworkSnapshot(graph, registry);
+        Assert.assertEquals(0, network.ordinal(portC));
+        Assert.assertEquals(1, network.ordinal(portA));
+        Assert.assertEquals(2, network.ordinal(portB));
+        Assert.assertSame(portA, network.port(1));
+        Assert.assertEquals(-1, network.ordinal(new Port("A", "image.com", "Port A", "Port A")));
+
+        Assert.assertEquals(2, network.lastRoute(1) - network.firstRoute(1));
+        int route = network.firstRoute(0);
+        Assert.assertEquals("C-A", network.route(route).getId());
+        Assert.assertEquals(1, network.target(route));
+        Assert.assertEquals("A-B", network.route(network.incoming(network.firstIncoming(2))).getId());
+
+        var it = GraphUtils.bestKmsRoute(network, portC, portB).values();
+        Assert.assertEquals("C-A", it.next().getId());
+        Assert.assertEquals("A-B", it.next().getId());
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void immutableTest() {
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        graph.newVertex(new Port("D", "image.com", "Port D", "Port D"));
+
+        Assert.assertEquals(3, network.numPorts());
+        Assert.assertEquals(4, new NetworkSnapshot(graph).numPorts());
+    }
+
+    @Test
+    public void minKmsTest() {
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        Assert.assertFalse(network.hasCoordinates());
+        Assert.assertEquals(0, network.minKms(network.ordinal(portA), network.ordinal(portB)), 0);
+
+        portA.setCoordinates(41.38, 2.17);
+        portB.setCoordinates(39.47, -0.38);
+        portC.setCoordinates(38.91, 1.43);
+        network = new NetworkSnapshot(graph);
+        Assert.assertTrue(network.hasCoordinates());
+
+        int a = network.ordinal(portA);
+        int b = network.ordinal(portB);
+        Assert.assertEquals(0, network.minKms(a, a), 0);
+        Assert.assertTrue(network.minKms(a, b) > 0);
+        // The routes are much shorter than the great-circle distances, so the bound is scaled down to them
+        for (int route = 0; route < network.numRoutes(); route++) {
+            Assert.assertTrue(network.minKms(network.source(route), network.target(route)) <= network.kms(route) + 1e-9);
+        }
+        Assert.assertEquals(5, network.minKms(network.ordinal(portC), a), 1e-9);
+    }
+}
@@ -0,0 +1,65 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.Arrays;
+
+public class ParetoRoutesTest {
+
+    @Test
+    public void bestRoutesTest() {
+        NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(10, 35, 100, 5L));
+
+        for (int i = 0; i < network.numPorts(); i++) {
+            for (int j = 0; j < network.numPorts(); j++) {
+                Port src = network.port(i);
+                Port dst = network.port(j);
+
+                // Shortest kms of the loopless routes with every number of routes
+                double[] expected = new double[network.numPorts()];
+                Arrays.fill(expected, Double.POSITIVE_INFINITY);
+                if (i != j) {
+                    TestNetworks.allRoutes(network, i, j, (kms, numRoutes) ->
+                            expected[numRoutes] = Math.min(expected[numRoutes], kms));
+                }
+
+                // Only the routes shorter than every route with fewer ports are part of the front
+                boolean[] front = new boolean[expected.length];
+                double shortest = Double.POSITIVE_INFINITY;
+                for (int numRoutes = 1; numRoutes < expected.length; numRoutes++) {
+                    front[numRoutes] = expected[numRoutes] < shortest;
+                    shortest = Math.min(shortest, expected[numRoutes]);
+                }
+
+                List<List<Route>> result = ParetoRoutes.bestRoutes(network, src, dst);
+                var it = result.values();
+                for (int numRoutes = expected.length - 1; numRoutes > 0; numRoutes--) {
+                    if (front[numRoutes]) {
+                        Assert.assertTrue(it.hasNext());
+                        List<Route> routes = it.next();
+                        Assert.assertEquals(numRoutes, routes.size());
+                        Assert.assertEquals(expected[numRoutes], TestNetworks.checkRoute(src, dst, routes), 0);
+                    }
+                }
+                Assert.assertFalse(it.hasNext());
+
+                if (!result.isEmpty()) {
+                    Assert.assertEquals(GraphUtils.bestPortRoute(network, src, dst).size(), lastOf(result).size());
+                }
+            }
+        }
+    }
+
+    private static List<Route> lastOf(List<List<Route>> routes) {
+        List<Route> last = null;
+        var it = routes.values();
+        while (it.hasNext()) {
+            last = it.next();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,46 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+
+public class PortRegistryTest {
+
+    @Test
+    public void registerTest() {
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        PortRegistry registry = new PortRegistry();
+        var vertexes = new ArrayList<Vertex<Port>>();
+        for (int i = 0; i < 100; i++) {
+            Port port = new Port("P" + i, "image.com", "Port " + i, "Port " + i);
+            Assert.assertEquals(-1, port.getOrdinal());
+            vertexes.add(graph.newVertex(port));
+            Assert.assertEquals(i, registry.register(port, vertexes.get(i)));
+        }
+        Assert.assertEquals(100, registry.size());
+
+        Port port = vertexes.get(42).getValue();
+        Assert.assertEquals(42, port.getOrdinal());
+        Assert.assertEquals(42, registry.ordinal(port));
+        Assert.assertSame(port, registry.port(42));
+        Assert.assertSame(vertexes.get(42), registry.vertex(42));
+        Assert.assertSame(vertexes.get(42), registry.vertex(port));
+
+        // Registering again keeps the ordinal, even after renaming the port
+        port.setName("Renamed");
+        Assert.assertEquals(42, registry.register(port, vertexes.get(42)));
+        Assert.assertEquals(100, registry.size());
+
+        // Ports with the same name or registered elsewhere are not found
+        Assert.assertEquals(-1, registry.ordinal(new Port("P1", "image.com", "Port 1", "Port 1")));
+        Port other = new Port("X", "image.com", "Port X", "Port X");
+        new PortRegistry().register(other, null);
+        Assert.assertEquals(-1, registry.ordinal(other));
+    }
+}
@@ -0,0 +1,41 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.helpers.KeyValue;
+import edu.uoc.ds.exceptions.InvalidPositionException;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+
+import java.util.HashSet;
+
+public class PortsWithinKmsTest {
+
+    @Test
+    public void portsWithinKmsTest() {
+        NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(50, 150, 300, 5L));
+        for (int i = 0; i < network.numPorts(); i++) {
+            ShortestPathTree tree = new ShortestPathTree(network, network.port(i));
+            for (double maxKms : new double[]{0, 150, 400, 1000}) {
+                var returned = new HashSet<Port>();
+                double previous = 0;
+                PortsWithinKms it = new PortsWithinKms(network, network.port(i), maxKms);
+                while (it.hasNext()) {
+                    KeyValue<Port, Double> next = it.next();
+                    Assert.assertNotEquals(network.port(i), next.getKey());
+                    Assert.assertTrue(returned.add(next.getKey()));
+                    Assert.assertEquals(tree.distance(next.getKey()), next.getValue(), 0);
+                    Assert.assertTrue(next.getValue() >= previous && next.getValue() <= maxKms);
+                    previous = next.getValue();
+                }
+                Assert.assertThrows(InvalidPositionException.class, it::next);
+
+                for (int j = 0; j < network.numPorts(); j++) {
+                    Port port = network.port(j);
+                    Assert.assertEquals(j != i && tree.distance(port) <= maxKms, returned.contains(port));
+                }
+            }
+        }
+
+        Assert.assertFalse(new PortsWithinKms(network, new Port("X", "image.com", "Port X", "Port X"), 100).hasNext());
+    }
+}
@@ -0,0 +1,81 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+public class ReachabilityIndexTest {
+
+    @Test
+    public void componentsTest() {
+        // A <-> B -> C <-> D, E isolated
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        var a = graph.newVertex(new Port("A", "image.com", "Port A", "Port A"));
+        var b = graph.newVertex(new Port("B", "image.com", "Port B", "Port B"));
+        var c = graph.newVertex(new Port("C", "image.com", "Port C", "Port C"));
+        var d = graph.newVertex(new Port("D", "image.com", "Port D", "Port D"));
+        var e = graph.newVertex(new Port("E", "image.com", "Port E", "Port E"));
+        graph.newEdge(a, b).setLabel(new Route("A-B", a.getValue(), b.getValue(), 1D));
+        graph.newEdge(b, a).setLabel(new Route("B-A", b.getValue(), a.getValue(), 1D));
+        graph.newEdge(b, c).setLabel(new Route("B-C", b.getValue(), c.getValue(), 1D));
+        graph.newEdge(c, d).setLabel(new Route("C-D", c.getValue(), d.getValue(), 1D));
+        graph.newEdge(d, c).setLabel(new Route("D-C", d.getValue(), c.getValue(), 1D));
+
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        ReachabilityIndex index = new ReachabilityIndex(network);
+        Assert.assertEquals(3, index.numComponents());
+        Assert.assertTrue(index.isIndexed());
+
+        int componentA = index.component(network.ordinal(a.getValue()));
+        int componentC = index.component(network.ordinal(c.getValue()));
+        Assert.assertEquals(componentA, index.component(network.ordinal(b.getValue())));
+        Assert.assertEquals(componentC, index.component(network.ordinal(d.getValue())));
+        Assert.assertTrue(componentA > componentC);
+
+        Assert.assertTrue(index.existConnection(b.getValue(), a.getValue()));
+        Assert.assertTrue(index.existConnection(a.getValue(), d.getValue()));
+        Assert.assertFalse(index.existConnection(d.getValue(), b.getValue()));
+        Assert.assertFalse(index.existConnection(a.getValue(), e.getValue()));
+        Assert.assertFalse(index.existConnection(e.getValue(), a.getValue()));
+    }
+
+    @Test
+    public void existConnectionTest() {
+        var graph = TestNetworks.randomNetwork(60, 90, 1, 7L);
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        ReachabilityIndex indexed = new ReachabilityIndex(network);
+        ReachabilityIndex notIndexed = new ReachabilityIndex(network, 0);
+        Assert.assertTrue(indexed.isIndexed());
+        Assert.assertFalse(notIndexed.isIndexed());
+
+        for (int i = 0; i < network.numPorts(); i++) {
+            for (int j = 0; j < network.numPorts(); j++) {
+                Port src = network.port(i);
+                Port dst = network.port(j);
+                boolean expected = GraphUtils.existConnection(network, src, dst);
+                Assert.assertEquals(expected, indexed.existConnection(src, dst));
+                Assert.assertEquals(expected, notIndexed.existConnection(src, dst));
+            }
+        }
+    }
+
+    @Test
+    public void longChainTest() {
+        DirectedGraph<Port, Route> chain = new DirectedGraphImpl<>();
+        var first = chain.newVertex(new Port("P0", "image.com", "Port 0", "Port 0"));
+        var previous = first;
+        for (int i = 1; i < 5000; i++) {
+            var current = chain.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i));
+            chain.newEdge(previous, current).setLabel(new Route("R" + i, previous.getValue(), current.getValue(), 1D));
+            previous = current;
+        }
+        chain.newEdge(previous, first).setLabel(new Route("R0", previous.getValue(), first.getValue(), 1D));
+
+        ReachabilityIndex index = new ReachabilityIndex(new NetworkSnapshot(chain));
+        Assert.assertEquals(1, index.numComponents());
+        Assert.assertTrue(index.existConnection(previous.getValue(), first.getValue()));
+    }
+}
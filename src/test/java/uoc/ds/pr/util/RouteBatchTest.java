@@ -0,0 +1,60 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class RouteBatchTest {
+
+    @Test
+    public void bestRoutesTest() {
+        NetworkSnapshot network = new NetworkSnapshot(TestNetworks.randomNetwork(40, 120, 500, 7L));
+        var ports = new HashMap<String, Port>();
+        for (int i = 0; i < network.numPorts(); i++) {
+            ports.put(network.port(i).getId(), network.port(i));
+        }
+
+        // Many queries share a few sources, and some sources have a single query
+        Random random = new Random(7L);
+        RouteBatch.Query[] queries = new RouteBatch.Query[500];
+        for (int i = 0; i < queries.length; i++) {
+            int src = i % 7 == 0 ? random.nextInt(40) : random.nextInt(5);
+            queries[i] = new RouteBatch.Query("P" + src, "P" + random.nextInt(41),
+                    RouteCache.QueryType.values()[random.nextInt(2)]);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            RouteBatch batch = new RouteBatch(network, queries, ports::get, pool);
+            Assert.assertEquals(queries.length, batch.size());
+            Assert.assertEquals(queries.length, batch.getStats().queries());
+            Assert.assertTrue(batch.getStats().searches() < queries.length);
+
+            for (int i = 0; i < queries.length; i++) {
+                Port src = ports.get(queries[i].srcPortId());
+                Port dst = ports.get(queries[i].dstPortId());
+                if (dst == null || src == dst) {
+                    Assert.assertNull(batch.route(i));
+                    continue;
+                }
+
+                List<Route> expected = queries[i].type() == RouteCache.QueryType.KMS
+                        ? GraphUtils.bestKmsRoute(network, src, dst)
+                        : GraphUtils.bestPortRoute(network, src, dst);
+                List<Route> result = batch.route(i);
+                Assert.assertEquals(expected.size(), result.size());
+                if (!result.isEmpty()) {
+                    Assert.assertEquals(TestNetworks.kms(expected), TestNetworks.checkRoute(src, dst, result), 1e-9);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import uoc.ds.pr.model.Route;
+
+import static uoc.ds.pr.util.RouteCache.QueryType.KMS;
+import static uoc.ds.pr.util.RouteCache.QueryType.PORTS;
+
+public class RouteCacheTest {
+    RouteCache routeCache;
+    List<Route> route;
+
+    @Before
+    public void setUp() {
+        routeCache = new RouteCache(2);
+        route = new LinkedList<>();
+    }
+
+    @Test
+    public void getTest() {
+        Assert.assertNull(routeCache.get(KMS, "A", "B", 0));
+        routeCache.put(KMS, "A", "B", 0, route);
+
+        Assert.assertSame(route, routeCache.get(KMS, "A", "B", 0));
+        Assert.assertNull(routeCache.get(PORTS, "A", "B", 0));
+        Assert.assertNull(routeCache.get(KMS, "B", "A", 0));
+
+        RouteCache.Stats stats = routeCache.getStats();
+        Assert.assertEquals(1, stats.hits());
+        Assert.assertEquals(3, stats.misses());
+        Assert.assertEquals(1, stats.size());
+        Assert.assertEquals(2, stats.capacity());
+    }
+
+    @Test
+    public void evictionTest() {
+        routeCache.put(KMS, "A", "B", 0, route);
+        routeCache.put(KMS, "A", "C", 0, route);
+        // A-B becomes the most recently used entry
+        routeCache.get(KMS, "A", "B", 0);
+        routeCache.put(KMS, "A", "D", 0, route);
+
+        Assert.assertNotNull(routeCache.get(KMS, "A", "B", 0));
+        Assert.assertNull(routeCache.get(KMS, "A", "C", 0));
+        Assert.assertNotNull(routeCache.get(KMS, "A", "D", 0));
+        Assert.assertEquals(1, routeCache.getStats().evictions());
+        Assert.assertEquals(2, routeCache.getStats().size());
+    }
+
+    @Test
+    public void invalidationTest() {
+        routeCache.put(KMS, "A", "B", 0, route);
+        routeCache.put(PORTS, "A", "B", 0, route);
+
+        Assert.assertNull(routeCache.get(KMS, "A", "B", 1));
+        Assert.assertEquals(0, routeCache.getStats().size());
+        Assert.assertEquals(1, routeCache.getStats().invalidations());
+
+        routeCache.put(KMS, "A", "B", 1, route);
+        Assert.assertSame(route, routeCache.get(KMS, "A", "B", 1));
+    }
+
+    @Test
+    public void disabledTest() {
+        routeCache = new RouteCache(0);
+        routeCache.put(KMS, "A", "B", 0, route);
+        Assert.assertNull(routeCache.get(KMS, "A", "B", 0));
+        Assert.assertEquals(0, routeCache.getStats().evictions());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> new RouteCache(-1));
+    }
+}
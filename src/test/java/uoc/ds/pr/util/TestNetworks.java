@@ -0,0 +1,137 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random ports networks shared by the route search tests, and brute force checks of the routes they return
+ */
+public class TestNetworks {
+
+    /**
+     * @return network of ports "P0" to "P{numPorts - 1}" with routes "R{i}" between random ports and random integer
+     * kms between 1 and maxKms. Routes from a port to itself or between ports already connected are skipped, so the
+     * network has at most numRoutes routes
+     */
+    public static DirectedGraph<Port, Route> randomNetwork(int numPorts, int numRoutes, int maxKms, long seed) {
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        var vertexes = new ArrayList<Vertex<Port>>();
+        for (int i = 0; i < numPorts; i++) {
+            vertexes.add(graph.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i)));
+        }
+
+        Random random = new Random(seed);
+        for (int i = 0; i < numRoutes; i++) {
+            var src = vertexes.get(random.nextInt(numPorts));
+            var dst = vertexes.get(random.nextInt(numPorts));
+            if (src != dst && graph.getEdge(src, dst) == null) {
+                double kms = 1 + random.nextInt(maxKms);
+                graph.newEdge(src, dst).setLabel(new Route("R" + i, src.getValue(), dst.getValue(), kms));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return network of 60 ports with coordinates in the Mediterranean, with routes between 0.8 and 1.8 times the
+     * great-circle distance between their ports
+     */
+    public static DirectedGraph<Port, Route> mediterraneanNetwork(long seed) {
+        DirectedGraph<Port, Route> network = new DirectedGraphImpl<>();
+        var vertexes = new ArrayList<Vertex<Port>>();
+        Random random = new Random(seed);
+        for (int i = 0; i < 60; i++) {
+            vertexes.add(network.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i,
+                    30 + random.nextDouble() * 16, -6 + random.nextDouble() * 42)));
+        }
+        for (int i = 0; i < 240; i++) {
+            var src = vertexes.get(random.nextInt(60));
+            var dst = vertexes.get(random.nextInt(60));
+            if (src != dst && network.getEdge(src, dst) == null) {
+                double greatCircle = Utils.greatCircleKms(src.getValue().getLatitude(), src.getValue().getLongitude(),
+                        dst.getValue().getLatitude(), dst.getValue().getLongitude());
+                // Some routes are shorter than the great-circle distance, so the lower bound is scaled down
+                double kms = Math.round(greatCircle * (0.8 + random.nextDouble()));
+                network.newEdge(src, dst).setLabel(new Route("R" + i, src.getValue(), dst.getValue(), kms));
+            }
+        }
+
+        return network;
+    }
+
+    /**
+     * Visits every loopless route between two ports of the network
+     *
+     * @param network network to be analysed
+     * @param src     ordinal of the source port
+     * @param dst     ordinal of the destination port
+     * @param visitor called with the kms and the number of routes of every route found
+     */
+    public static void allRoutes(NetworkSnapshot network, int src, int dst, RouteVisitor visitor) {
+        allRoutes(network, src, dst, new boolean[network.numPorts()], 0, 0, visitor);
+    }
+
+    private static void allRoutes(NetworkSnapshot network, int current, int dst, boolean[] visited, double kms,
+                                  int numRoutes, RouteVisitor visitor) {
+        if (current == dst) {
+            visitor.visit(kms, numRoutes);
+            return;
+        }
+        visited[current] = true;
+        for (int route = network.firstRoute(current); route < network.lastRoute(current); route++) {
+            int next = network.target(route);
+            if (!visited[next]) {
+                allRoutes(network, next, dst, visited, kms + network.kms(route), numRoutes + 1, visitor);
+            }
+        }
+        visited[current] = false;
+    }
+
+    /**
+     * Checks the routes are consecutive, go from the source to the destination port and never visit a port twice
+     *
+     * @return total kms of the routes
+     */
+    public static double checkRoute(Port src, Port dst, List<Route> routes) {
+        Set<Port> visited = new HashSet<>();
+        visited.add(src);
+        Port current = src;
+        double kms = 0;
+
+        var it = routes.values();
+        while (it.hasNext()) {
+            Route route = it.next();
+            Assert.assertEquals(current, route.getSrcPort());
+            current = route.getDstPort();
+            Assert.assertTrue(visited.add(current));
+            kms += route.getKms();
+        }
+        Assert.assertEquals(dst, current);
+
+        return kms;
+    }
+
+    public static double kms(List<Route> routes) {
+        double result = 0;
+        var it = routes.values();
+        while (it.hasNext()) {
+            result += it.next().getKms();
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface RouteVisitor {
+        void visit(double kms, int numRoutes);
+    }
+}
@@ -0,0 +1,115 @@
+package uoc.ds.pr.util;
+
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraph;
+import edu.uoc.ds.adt.nonlinear.graphs.DirectedGraphImpl;
+import edu.uoc.ds.adt.nonlinear.graphs.Vertex;
+import edu.uoc.ds.adt.sequential.LinkedList;
+import edu.uoc.ds.adt.sequential.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uoc.ds.pr.model.Port;
+import uoc.ds.pr.model.Route;
+import uoc.ds.pr.model.Ship;
+import uoc.ds.pr.model.Voyage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+public class VoyageTimetableTest {
+
+    private static final long HOUR = 3600 * 1000L;
+
+    @Test
+    public void earliestArrivalTest() {
+        DirectedGraph<Port, Route> graph = new DirectedGraphImpl<>();
+        var vertexes = new ArrayList<Vertex<Port>>();
+        for (int i = 0; i < 8; i++) {
+            vertexes.add(graph.newVertex(new Port("P" + i, "image.com", "Port " + i, "Port " + i)));
+        }
+        var routes = new ArrayList<Route>();
+        Random random = new Random(3L);
+        for (int i = 0; i < 20; i++) {
+            var src = vertexes.get(random.nextInt(8));
+            var dst = vertexes.get(random.nextInt(8));
+            if (src != dst && graph.getEdge(src, dst) == null) {
+                Route route = new Route("R" + i, src.getValue(), dst.getValue(), 100);
+                graph.newEdge(src, dst).setLabel(route);
+                routes.add(route);
+            }
+        }
+
+        Ship ship = new Ship("S", "Ship", 10, 2, 2, 2, 10);
+        List<Voyage> voyages = new LinkedList<>();
+        for (int i = 0; i < 200; i++) {
+            long departure = random.nextInt(240) * HOUR;
+            long arrival = departure + (1 + random.nextInt(24)) * HOUR;
+            voyages.insertEnd(new Voyage("V" + i, new Date(departure), new Date(arrival), ship,
+                    routes.get(random.nextInt(routes.size()))));
+        }
+        // Voyages arriving before they depart are ignored
+        voyages.insertEnd(new Voyage("X", new Date(HOUR), new Date(0), ship, routes.get(0)));
+
+        NetworkSnapshot network = new NetworkSnapshot(graph);
+        VoyageTimetable timetable = new VoyageTimetable(network, voyages.values());
+        Assert.assertEquals(200, timetable.numVoyages());
+
+        for (long departure = 0; departure < 240 * HOUR; departure += 17 * HOUR) {
+            for (int i = 0; i < network.numPorts(); i++) {
+                long[] expected = earliestArrivals(network, voyages, i, departure);
+                for (int j = 0; j < network.numPorts(); j++) {
+                    Port src = network.port(i);
+                    Port dst = network.port(j);
+                    List<Voyage> result = timetable.earliestArrival(src, dst, new Date(departure));
+
+                    if (i == j || expected[j] == Long.MAX_VALUE) {
+                        Assert.assertTrue(result.isEmpty());
+                        continue;
+                    }
+
+                    // Consecutive voyages, every one leaving after the previous one arrives
+                    Port current = src;
+                    long time = departure;
+                    var it = result.values();
+                    while (it.hasNext()) {
+                        Voyage voyage = it.next();
+                        Assert.assertEquals(current, voyage.getRoute().getSrcPort());
+                        Assert.assertTrue(voyage.getDepartureDt().getTime() >= time);
+                        current = voyage.getRoute().getDstPort();
+                        time = voyage.getArrivalDt().getTime();
+                    }
+                    Assert.assertEquals(dst, current);
+                    Assert.assertEquals(expected[j], time);
+                }
+            }
+        }
+    }
+
+    /**
+     * Relaxes every voyage until no arrival improves
+     */
+    private static long[] earliestArrivals(NetworkSnapshot network, List<Voyage> voyages, int src, long departure) {
+        long[] result = new long[network.numPorts()];
+        Arrays.fill(result, Long.MAX_VALUE);
+        result[src] = departure;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            var it = voyages.values();
+            while (it.hasNext()) {
+                Voyage voyage = it.next();
+                int from = network.ordinal(voyage.getRoute().getSrcPort());
+                int to = network.ordinal(voyage.getRoute().getDstPort());
+                long arrival = voyage.getArrivalDt().getTime();
+                if (arrival >= voyage.getDepartureDt().getTime()
+                        && result[from] <= voyage.getDepartureDt().getTime() && arrival < result[to]) {
+                    result[to] = arrival;
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+}